@@ -0,0 +1,243 @@
+package edu.uwo.csd.dcsim.examples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.apache.log4j.Logger;
+
+import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.core.*;
+
+/**
+ * Stress test of event cancellation: queues a number of events, then cancels them all in random order, as
+ * RepeatingEvent.stop() does through Simulation.dequeueEvent when repeating events are held in the EventQueue. Compares
+ * HeapEventQueue and CalendarEventQueue against java.util.PriorityQueue, whose remove is a linear search, at a quarter,
+ * half and all of the number of events. The time per cancellation should grow no faster than log n for the EventQueue
+ * implementations, and linearly for PriorityQueue.
+ *
+ * Checks that every cancellation succeeds, that the queue is empty afterwards, and that the events left after cancelling
+ * half of them are polled in EventComparator order.
+ *
+ * Then starts the same numbers of RepeatingEvents through a Simulation, in order of start time as when started at the
+ * current simulation time, restarts half of them at their original start time, and then stops them all in random order
+ * with RepeatingEvent.stop(). This is run with the RepeatingEventWheel enabled and disabled, and checks that the
+ * EventQueue and the wheel are empty afterwards.
+ *
+ * Usage: EventCancellationBenchmark [number of events] [random seed]
+ *
+ */
+public class EventCancellationBenchmark {
+
+	private static Logger logger = Logger.getLogger(EventCancellationBenchmark.class);
+
+	private static final String REPEATING_EVENT_WHEEL_PROP = "enableRepeatingEventWheel";
+	private static final long MAX_START_TIME = 86400000; //one day
+	private static final long[] INTERVALS = {300000, 600000, 3600000}; //repeat intervals of the RepeatingEvents
+
+	public static void main(String args[]) {
+
+		Simulation.initializeLogging();
+
+		int nEvents = 100000;
+		long seed = 1;
+		if (args.length > 0)
+			nEvents = Integer.parseInt(args[0]);
+		if (args.length > 1)
+			seed = Long.parseLong(args[1]);
+
+		Random random = new Random(seed);
+
+		logger.info("events | heap us/cancel | calendar us/cancel | PriorityQueue us/cancel | ordered");
+
+		for (int n : new int[] {nEvents / 4, nEvents / 2, nEvents}) {
+			ArrayList<BenchmarkEvent> events = new ArrayList<BenchmarkEvent>();
+			for (int i = 0; i < n; ++i) {
+				events.add(new BenchmarkEvent((long)(random.nextDouble() * MAX_START_TIME), i));
+			}
+			ArrayList<BenchmarkEvent> cancelOrder = new ArrayList<BenchmarkEvent>(events);
+			Collections.shuffle(cancelOrder, random);
+
+			boolean ordered = checkOrder(new HeapEventQueue(), events, cancelOrder) &&
+					checkOrder(new CalendarEventQueue(), events, cancelOrder);
+
+			long heapTime = cancelAll(new HeapEventQueue(), events, cancelOrder);
+			long calendarTime = cancelAll(new CalendarEventQueue(), events, cancelOrder);
+			long priorityQueueTime = cancelAll(new PriorityQueue<Event>(n, new EventComparator()), events, cancelOrder);
+
+			logger.info(n +
+					" | " + Utility.roundDouble(heapTime / 1000.0 / n, 3) +
+					" | " + Utility.roundDouble(calendarTime / 1000.0 / n, 3) +
+					" | " + Utility.roundDouble(priorityQueueTime / 1000.0 / n, 3) +
+					" | " + ordered);
+		}
+
+		logger.info("repeating events | wheel us/start | wheel us/restart | wheel us/stop | queue us/start | queue us/restart | queue us/stop");
+
+		for (int n : new int[] {nEvents / 4, nEvents / 2, nEvents}) {
+			long[] startTimes = new long[n];
+			for (int i = 0; i < n; ++i) {
+				startTimes[i] = (long)(random.nextDouble() * MAX_START_TIME);
+			}
+			Arrays.sort(startTimes);
+			ArrayList<Integer> stopOrder = new ArrayList<Integer>();
+			for (int i = 0; i < n; ++i) {
+				stopOrder.add(i);
+			}
+			Collections.shuffle(stopOrder, random);
+
+			long[] wheelTimes = startAndStopAll(true, startTimes, stopOrder);
+			long[] queueTimes = startAndStopAll(false, startTimes, stopOrder);
+
+			logger.info(n +
+					" | " + Utility.roundDouble(wheelTimes[0] / 1000.0 / n, 3) +
+					" | " + Utility.roundDouble(wheelTimes[1] / 1000.0 / (n / 2), 3) +
+					" | " + Utility.roundDouble(wheelTimes[2] / 1000.0 / n, 3) +
+					" | " + Utility.roundDouble(queueTimes[0] / 1000.0 / n, 3) +
+					" | " + Utility.roundDouble(queueTimes[1] / 1000.0 / (n / 2), 3) +
+					" | " + Utility.roundDouble(queueTimes[2] / 1000.0 / n, 3));
+		}
+		System.clearProperty(REPEATING_EVENT_WHEEL_PROP);
+	}
+
+	/**
+	 * Start RepeatingEvents at the given times through a Simulation, restart the first half of them in the given order,
+	 * then stop them all in that order
+	 * @param wheel True to hold the RepeatingEvents in the RepeatingEventWheel, false to hold them in the EventQueue
+	 * @return The time taken to start all events, to restart half of them, and to stop all of them, in nanoseconds
+	 */
+	private static long[] startAndStopAll(boolean wheel, long[] startTimes, ArrayList<Integer> stopOrder) {
+		System.setProperty(REPEATING_EVENT_WHEEL_PROP, Boolean.toString(wheel));
+		Simulation simulation = new Simulation("eventCancellationBenchmark");
+
+		BenchmarkListener listener = new BenchmarkListener();
+		ArrayList<BenchmarkRepeatingEvent> events = new ArrayList<BenchmarkRepeatingEvent>();
+		for (int i = 0; i < startTimes.length; ++i) {
+			events.add(new BenchmarkRepeatingEvent(simulation, listener, INTERVALS[i % INTERVALS.length]));
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < startTimes.length; ++i) {
+			events.get(i).start(startTimes[i]);
+		}
+		long startTime = System.nanoTime() - start;
+
+		//a restarted event is re-queued before its cancelled entry in the wheel, if any, is discarded
+		start = System.nanoTime();
+		for (int i = 0; i < stopOrder.size() / 2; ++i) {
+			BenchmarkRepeatingEvent event = events.get(stopOrder.get(i));
+			event.stop();
+			event.start(startTimes[stopOrder.get(i)]);
+		}
+		long restartTime = System.nanoTime() - start;
+
+		int queued = simulation.getEventQueueSize() + simulation.getRepeatingEventWheelSize();
+		if (queued != startTimes.length + (wheel ? 1 : 0))
+			throw new IllegalStateException("Started events not all queued");
+
+		start = System.nanoTime();
+		for (int i : stopOrder) {
+			events.get(i).stop();
+		}
+		long stopTime = System.nanoTime() - start;
+
+		if (simulation.getEventQueueSize() != 0)
+			throw new IllegalStateException("Event queue not empty after stopping all repeating events");
+		if (simulation.getRepeatingEventWheelSize() != 0)
+			throw new IllegalStateException("Repeating event wheel not empty after stopping all repeating events");
+		return new long[] {startTime, restartTime, stopTime};
+	}
+
+	/**
+	 * Queue all events, then time cancelling them in the given order
+	 * @return The time taken to cancel, in nanoseconds
+	 */
+	private static long cancelAll(EventQueue queue, ArrayList<BenchmarkEvent> events, ArrayList<BenchmarkEvent> cancelOrder) {
+		for (BenchmarkEvent event : events) {
+			queue.add(event);
+		}
+
+		long start = System.nanoTime();
+		for (BenchmarkEvent event : cancelOrder) {
+			if (!queue.remove(event))
+				throw new IllegalStateException("Queued event could not be cancelled");
+		}
+		long time = System.nanoTime() - start;
+
+		if (!queue.isEmpty())
+			throw new IllegalStateException("Queue not empty after cancelling all events");
+		return time;
+	}
+
+	private static long cancelAll(PriorityQueue<Event> queue, ArrayList<BenchmarkEvent> events, ArrayList<BenchmarkEvent> cancelOrder) {
+		queue.addAll(events);
+
+		long start = System.nanoTime();
+		for (BenchmarkEvent event : cancelOrder) {
+			if (!queue.remove(event))
+				throw new IllegalStateException("Queued event could not be cancelled");
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Queue all events, cancel half of them, and check that the rest are polled in order
+	 * @return True if the remaining events were polled in order
+	 */
+	private static boolean checkOrder(EventQueue queue, ArrayList<BenchmarkEvent> events, ArrayList<BenchmarkEvent> cancelOrder) {
+		for (BenchmarkEvent event : events) {
+			queue.add(event);
+		}
+		for (int i = 0; i < cancelOrder.size() / 2; ++i) {
+			queue.remove(cancelOrder.get(i));
+		}
+
+		EventComparator comparator = new EventComparator();
+		Event last = null;
+		int polled = 0;
+		while (!queue.isEmpty()) {
+			Event event = queue.poll();
+			if (last != null && comparator.compare(last, event) > 0)
+				return false;
+			last = event;
+			++polled;
+		}
+		return polled == events.size() - (cancelOrder.size() / 2);
+	}
+
+	/**
+	 * An event with a fixed time and send order, as if it had been sent with Simulation.sendEvent
+	 */
+	private static class BenchmarkEvent extends Event {
+
+		public BenchmarkEvent(long time, long sendOrder) {
+			super(null);
+			setTime(time);
+			setSendOrder(sendOrder);
+		}
+
+	}
+
+	/**
+	 * A RepeatingEvent that is never executed
+	 */
+	private static class BenchmarkRepeatingEvent extends RepeatingEvent {
+
+		public BenchmarkRepeatingEvent(Simulation simulation, SimulationEventListener target, long interval) {
+			super(simulation, target, interval);
+		}
+
+	}
+
+	private static class BenchmarkListener implements SimulationEventListener {
+
+		@Override
+		public void handleEvent(Event e) {
+			throw new IllegalStateException("Benchmark repeating event executed");
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+package edu.uwo.csd.dcsim.examples;
+
+import java.util.Random;
+
+import org.apache.log4j.Logger;
+
+import edu.uwo.csd.dcsim.application.MvaSolver;
+import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.core.Simulation;
+
+/**
+ * Compares the accuracy and speed of the algorithms available to solve InteractiveApplication models (exact MVA,
+ * Schweitzer's approximate MVA and Linearizer) on randomly generated networks of task instances. Errors are relative to
+ * exact MVA.
+ *
+ * Usage: MvaBenchmark [networks per configuration] [random seed]
+ *
+ */
+public class MvaBenchmark {
+
+	private static Logger logger = Logger.getLogger(MvaBenchmark.class);
+
+	private static final int[] CLIENTS = {10, 100, 1000, 5000};
+	private static final int[] INSTANCES = {1, 3, 10, 30};
+	private static final double TOLERANCE = 0.01; //the queue length tolerance used by InteractiveApplication
+	private static final int TIMING_REPEATS = 5;
+
+	public static void main(String args[]) {
+
+		Simulation.initializeLogging();
+
+		int networks = 20;
+		long seed = 1;
+		if (args.length > 0)
+			networks = Integer.parseInt(args[0]);
+		if (args.length > 1)
+			seed = Long.parseLong(args[1]);
+
+		Random random = new Random(seed);
+
+		logger.info("clients instances | schweitzer: X err mean/max %, R err mean/max %, us | linearizer: X err mean/max %, R err mean/max %, us | exact: us");
+
+		for (int nClients : CLIENTS) {
+			for (int nInstances : INSTANCES) {
+				Result schweitzer = new Result();
+				Result linearizer = new Result();
+				Result exact = new Result();
+
+				for (int n = 0; n < networks; ++n) {
+					MvaSolver solver = createNetwork(random, nInstances, nClients);
+
+					long start = System.nanoTime();
+					for (int r = 0; r < TIMING_REPEATS; ++r) {
+						solver.solveExact(nClients);
+					}
+					exact.time += System.nanoTime() - start;
+					double exactThroughput = solver.getThroughput();
+					double exactResponseTime = solver.getResponseTime();
+
+					start = System.nanoTime();
+					for (int r = 0; r < TIMING_REPEATS; ++r) {
+						for (int i = 0; i < nInstances; ++i) {
+							solver.setQueueLength(i, nClients / (double)nInstances);
+						}
+						solver.solveSchweitzer(nClients, TOLERANCE);
+					}
+					schweitzer.time += System.nanoTime() - start;
+					schweitzer.add(solver, exactThroughput, exactResponseTime);
+
+					start = System.nanoTime();
+					for (int r = 0; r < TIMING_REPEATS; ++r) {
+						solver.solveLinearizer(nClients, TOLERANCE);
+					}
+					linearizer.time += System.nanoTime() - start;
+					linearizer.add(solver, exactThroughput, exactResponseTime);
+				}
+
+				int solves = networks * TIMING_REPEATS;
+				logger.info(nClients + " " + nInstances +
+						" | " + schweitzer.format(networks, solves) +
+						" | " + linearizer.format(networks, solves) +
+						" | " + Utility.roundDouble(exact.time / 1000.0 / solves, 2));
+			}
+		}
+	}
+
+	/**
+	 * Create a network with random service times, visit ratios and think time, in the ranges used by the example
+	 * applications
+	 * @param random
+	 * @param nInstances
+	 * @param nClients
+	 * @return
+	 */
+	private static MvaSolver createNetwork(Random random, int nInstances, int nClients) {
+		MvaSolver solver = new MvaSolver(nInstances);
+		solver.reset(nInstances, 1 + random.nextDouble() * 4);
+		for (int i = 0; i < nInstances; ++i) {
+			solver.setInstance(i, 0.001 + random.nextDouble() * 0.02, 0.5 + random.nextDouble());
+		}
+		return solver;
+	}
+
+	private static class Result {
+
+		double throughputError = 0;
+		double throughputErrorMax = 0;
+		double responseTimeError = 0;
+		double responseTimeErrorMax = 0;
+		long time = 0;
+
+		void add(MvaSolver solver, double exactThroughput, double exactResponseTime) {
+			double error = Math.abs(solver.getThroughput() - exactThroughput) / exactThroughput;
+			throughputError += error;
+			throughputErrorMax = Math.max(throughputErrorMax, error);
+
+			error = Math.abs(solver.getResponseTime() - exactResponseTime) / exactResponseTime;
+			responseTimeError += error;
+			responseTimeErrorMax = Math.max(responseTimeErrorMax, error);
+		}
+
+		String format(int networks, int solves) {
+			return Utility.roundDouble(Utility.toPercentage(throughputError / networks), 3) + "/" +
+					Utility.roundDouble(Utility.toPercentage(throughputErrorMax), 3) + ", " +
+					Utility.roundDouble(Utility.toPercentage(responseTimeError / networks), 3) + "/" +
+					Utility.roundDouble(Utility.toPercentage(responseTimeErrorMax), 3) + ", " +
+					Utility.roundDouble(time / 1000.0 / solves, 2);
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+package edu.uwo.csd.dcsim.examples;
+
+import java.util.ArrayList;
+
+import org.apache.log4j.Logger;
+
+import edu.uwo.csd.dcsim.*;
+import edu.uwo.csd.dcsim.common.SimTime;
+import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.core.Simulation;
+import edu.uwo.csd.dcsim.examples.management.ConsolidationPolicy;
+import edu.uwo.csd.dcsim.examples.management.RelocationPolicy;
+import edu.uwo.csd.dcsim.host.*;
+import edu.uwo.csd.dcsim.host.scheduler.*;
+import edu.uwo.csd.dcsim.management.AutonomicManager;
+import edu.uwo.csd.dcsim.vm.*;
+
+/**
+ * Compares WaterFillingResourceScheduler against DefaultResourceScheduler on the inputs of a running simulation. Every
+ * host schedules each round with the water-filling scheduler, records the resources scheduled to each VM, and then
+ * schedules with the default scheduler, so that the simulation proceeds exactly as it would with the default. The
+ * resources scheduled by the two are compared VM by VM, and the time spent in each scheduler is reported.
+ *
+ * The simulation is the data centre of ExampleHelper, with 200 hosts and 400 VMs of one and two cores, managed by the
+ * example relocation and consolidation policies.
+ *
+ * Usage: ResourceSchedulerComparison [days] [random seed]
+ *
+ */
+public class ResourceSchedulerComparison extends SimulationTask {
+
+	private static Logger logger = Logger.getLogger(ResourceSchedulerComparison.class);
+
+	private final Comparison comparison = new Comparison();
+
+	public static void main(String args[]) {
+
+		Simulation.initializeLogging();
+
+		long days = 2;
+		long seed = 1088501048448116498l;
+		if (args.length > 0)
+			days = Long.parseLong(args[0]);
+		if (args.length > 1)
+			seed = Long.parseLong(args[1]);
+
+		ResourceSchedulerComparison task = new ResourceSchedulerComparison("resourceSchedulerComparison", SimTime.days(days));
+		task.setRandomSeed(seed);
+		task.run();
+
+		Comparison comparison = task.comparison;
+		logger.info("calls | multi-core calls | mismatched calls | mismatched VMs | default us/call | water-filling us/call");
+		logger.info(comparison.calls +
+				" | " + comparison.multiCoreCalls +
+				" | " + comparison.mismatchedCalls +
+				" | " + comparison.mismatchedVms +
+				" | " + Utility.roundDouble(comparison.defaultTime / 1000.0 / comparison.calls, 3) +
+				" | " + Utility.roundDouble(comparison.waterFillingTime / 1000.0 / comparison.calls, 3));
+	}
+
+	public ResourceSchedulerComparison(String name, long duration) {
+		super(name, duration);
+	}
+
+	@Override
+	public void setup(Simulation simulation) {
+		AutonomicManager dcAM = ExampleHelper.createDataCentre(simulation);
+
+		for (DataCentre dc : simulation.getDataCentres()) {
+			for (Host host : dc.getHosts()) {
+				ComparingResourceScheduler scheduler = new ComparingResourceScheduler(comparison);
+				host.setResourceScheduler(scheduler);
+				scheduler.setHost(host);
+			}
+		}
+
+		ArrayList<VmAllocationRequest> vmList = ExampleHelper.createVmList(simulation, false);
+		ExampleHelper.placeVms(vmList, dcAM, simulation);
+
+		dcAM.installPolicy(new RelocationPolicy(0.5, 0.9, 0.85), SimTime.hours(1), SimTime.hours(1) + 1);
+		dcAM.installPolicy(new ConsolidationPolicy(0.5, 0.9, 0.85), SimTime.hours(2), SimTime.hours(2) + 2);
+	}
+
+	/**
+	 * Totals over all calls to scheduleResources
+	 */
+	private static class Comparison {
+		long calls = 0;
+		long multiCoreCalls = 0; //calls scheduling at least one VM with more than one core
+		long mismatchedCalls = 0;
+		long mismatchedVms = 0;
+		long defaultTime = 0;
+		long waterFillingTime = 0;
+	}
+
+	/**
+	 * Schedules with both schedulers, leaving the resources scheduled by DefaultResourceScheduler in place
+	 */
+	private static class ComparingResourceScheduler extends ResourceScheduler {
+
+		private final Comparison comparison;
+		private final DefaultResourceScheduler defaultScheduler = new DefaultResourceScheduler();
+		private final WaterFillingResourceScheduler waterFillingScheduler = new WaterFillingResourceScheduler();
+
+		//the resources scheduled to each VM by the water-filling scheduler, in allocation order
+		private final ArrayList<Vm> vms = new ArrayList<Vm>();
+		private final ArrayList<Resources> scheduled = new ArrayList<Resources>();
+		private int cpuInUse;
+
+		public ComparingResourceScheduler(Comparison comparison) {
+			this.comparison = comparison;
+		}
+
+		@Override
+		public void setHost(Host host) {
+			super.setHost(host);
+			defaultScheduler.setHost(host);
+			waterFillingScheduler.setHost(host);
+		}
+
+		@Override
+		public void scheduleResources() {
+			long start = System.nanoTime();
+			waterFillingScheduler.scheduleResources();
+			comparison.waterFillingTime += System.nanoTime() - start;
+			record();
+
+			start = System.nanoTime();
+			defaultScheduler.scheduleResources();
+			comparison.defaultTime += System.nanoTime() - start;
+			compare();
+		}
+
+		private void record() {
+			vms.clear();
+			scheduled.clear();
+
+			vms.add(host.getPrivDomainAllocation().getVm());
+			for (VmAllocation vmAlloc : host.getVMAllocations()) {
+				if (vmAlloc.getVm() != null) vms.add(vmAlloc.getVm());
+			}
+
+			//copy the Resources shared by each VM and its task instance, without the rounding of Vm.getResourcesScheduled()
+			for (Vm vm : vms) {
+				Resources resources = vm.getTaskInstance().getResourceScheduled();
+				Resources copy = new Resources(resources.getCpu(), resources.getMemory(), resources.getBandwidth(), resources.getStorage());
+				copy.setCores(resources.getCores());
+				scheduled.add(copy);
+			}
+			cpuInUse = host.getResourceManager().getCpuInUse();
+		}
+
+		private void compare() {
+			++comparison.calls;
+
+			boolean multiCore = false;
+			int mismatched = 0;
+			for (int i = 0; i < vms.size(); ++i) {
+				Resources expected = vms.get(i).getTaskInstance().getResourceScheduled();
+				Resources actual = scheduled.get(i);
+
+				if (expected.getCores() > 1)
+					multiCore = true;
+				if (actual.getCpu() != expected.getCpu() || actual.getCores() != expected.getCores() ||
+						actual.getMemory() != expected.getMemory() || actual.getBandwidth() != expected.getBandwidth() ||
+						actual.getStorage() != expected.getStorage())
+					++mismatched;
+			}
+
+			if (multiCore)
+				++comparison.multiCoreCalls;
+			if (mismatched > 0 || cpuInUse != host.getResourceManager().getCpuInUse())
+				++comparison.mismatchedCalls;
+			comparison.mismatchedVms += mismatched;
+		}
+
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import edu.uwo.csd.dcsim.host.Host;
 import edu.uwo.csd.dcsim.management.*;
@@ -163,7 +164,7 @@ public class ConsolidationPolicy extends Policy {
 	}
 	
 	
-	private ArrayList<VmStatus> orderSourceVms(ArrayList<VmStatus> sourceVms) {
+	private ArrayList<VmStatus> orderSourceVms(List<VmStatus> sourceVms) {
 		
 		ArrayList<VmStatus> sources = new ArrayList<VmStatus>(sourceVms);
 
@@ -3,6 +3,7 @@ package edu.uwo.csd.dcsim.examples.management;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import edu.uwo.csd.dcsim.host.Host;
 import edu.uwo.csd.dcsim.management.HostData;
@@ -159,7 +160,7 @@ public class RelocationPolicy extends Policy {
 		return sorted;
 	}
 	
-	public ArrayList<VmStatus> orderSourceVms(ArrayList<VmStatus> sourceVms, HostData source) {
+	public ArrayList<VmStatus> orderSourceVms(List<VmStatus> sourceVms, HostData source) {
 		
 		ArrayList<VmStatus> sorted = new ArrayList<VmStatus>();
 		
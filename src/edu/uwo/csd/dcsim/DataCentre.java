@@ -78,10 +78,20 @@ public class DataCentre implements SimulationEventListener {
 	}
 	
 	/**
-	 * Log state of the DataCentre
+	 * Log state of the DataCentre. While the simulation is running, Hosts are found through its HostStateIndex, and an
+	 * OFF Host is logged only once after it turns OFF, as its state does not change until it powers on.
 	 */
 	public void logState() {
-		for (Host host : hosts) {
+		Collection<Host> loggedHosts = null;
+		HostStateIndex hostStateIndex = simulation.getHostStateIndex();
+		if (hostStateIndex != null) {
+			loggedHosts = hostStateIndex.getHostsToLog(hosts);
+		}
+		if (loggedHosts == null) {
+			loggedHosts = hosts;
+		}
+		
+		for (Host host : loggedHosts) {
 			host.logState();
 		}
 	}
@@ -32,12 +32,25 @@ public abstract class Application {
 	private long completeTimeStamp = Long.MIN_VALUE;	
 	
 	public Application(Simulation simulation) {
+		this(simulation, true);
+	}
+	
+	/**
+	 * @param simulation
+	 * @param register True to add the Application to the Simulation, which schedules and advances it along with all
+	 * other Applications and records its metrics. Applications that are not registered must be managed by their owner.
+	 */
+	protected Application(Simulation simulation, boolean register) {
 		this.simulation = simulation;
-		simulation.addApplication(this);
 		this.id = simulation.nextId(Application.class.toString());
 		
-		//init hashCode
+		//init hashCode, before the Application is added to any hashed collection
 		hashCode = generateHashCode();
+		
+		if (register) {
+			simulation.addApplication(this);
+			simulation.markApplicationDirty(this);
+		}
 	}
 	
 	/**
@@ -62,6 +75,7 @@ public abstract class Application {
 		for (Task t : getTasks()) {
 			t.activate();
 		}
+		simulation.markApplicationDirty(this);
 	}
 	
 	public long getActivateTimeStamp() {
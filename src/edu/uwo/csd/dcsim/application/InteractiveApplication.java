@@ -1,12 +1,14 @@
 package edu.uwo.csd.dcsim.application;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import edu.uwo.csd.dcsim.application.loadbalancer.LoadBalancer;
 import edu.uwo.csd.dcsim.application.workload.*;
 import edu.uwo.csd.dcsim.core.Simulation;
 import edu.uwo.csd.dcsim.common.*;
 import edu.uwo.csd.dcsim.host.Resources;
+import edu.uwo.csd.dcsim.management.AutonomicManager;
 
 /**
  * @author Michael Tighe
@@ -17,6 +19,38 @@ public class InteractiveApplication extends Application {
 	private static boolean approximateMVAPropertyChecked = false;
 	public static boolean approximateMVA = false;
 	
+	/**
+	 * The algorithm used to solve the application model. EXACT and SCHWEITZER are selected by approximateMVA, unless the
+	 * 'mvaAlgorithm' property is set. See MvaSolver.
+	 */
+	public enum MvaAlgorithm {EXACT, SCHWEITZER, LINEARIZER;}
+	public static MvaAlgorithm mvaAlgorithm = MvaAlgorithm.EXACT;
+	
+	/**
+	 * Acceleration applied to the utilization (and so CPU demand) of task instances between scheduling rounds, to reduce
+	 * the number of rounds needed to reach a fixed point. AITKEN applies Aitken delta-squared extrapolation to every three
+	 * consecutive values.
+	 */
+	public enum DemandAcceleration {NONE, AITKEN;}
+	public static DemandAcceleration demandAcceleration = DemandAcceleration.NONE;
+	
+	/**
+	 * Start approximate MVA from the previous solution, scaled to the current number of clients, when the number of
+	 * clients and the effective service time of every task instance have each changed by no more than
+	 * mvaWarmStartThreshold (relative) since that solution. Otherwise, clients are distributed evenly among instances.
+	 */
+	public static boolean mvaWarmStart = false;
+	public static double mvaWarmStartThreshold = 0.1;
+	
+	/**
+	 * Find the maximum workload under Schweitzer's approximate MVA by binary search, rather than by trying each number of
+	 * clients in turn. calculateMaxWorkload checks the utilization limit at every iteration of the fixed point, not only at
+	 * the solution, so the limit is occasionally exceeded at a number of clients and not at a few more. The binary search
+	 * may then find a slightly larger maximum workload. Linearizer always uses binary search.
+	 */
+	public static boolean maxWorkloadBinarySearch = false;
+	
+	private static final double maxAitkenRatio = 0.5;
 	private static final double maxQueueError = 0.01f;
 	
 	private Workload workload;
@@ -30,6 +64,23 @@ public class InteractiveApplication extends Application {
 
 	int schedulingRounds;
 	
+	/*
+	 * The state of the task instances during scheduling, in primitive arrays indexed in task order, which the MVA
+	 * algorithms and the demand calculation iterate over. The arrays are filled in initializeScheduling, and the results
+	 * copied back to the InteractiveTaskInstances in postScheduling. mvaSolver holds the effective service time, visit
+	 * ratio, response time and queue length of each instance.
+	 */
+	private InteractiveTaskInstance[] instances = new InteractiveTaskInstance[0];
+	private int nInstances = 0;
+	private final MvaSolver mvaSolver = new MvaSolver();
+	private double[] serviceTimes = new double[0]; //service time without contention
+	private double[] utilizations = new double[0];
+	private boolean stateScheduled = false; //true if the state has been scheduled since it was last copied to the instances
+	
+	int mvaClients = -1; //number of clients in the last converged approximate MVA solution, or -1 if there is none
+	private double[] mvaServiceTimes = new double[0]; //effective service time and visit ratio of each instance in that solution
+	private double[] mvaVisitRatios = new double[0];
+	
 	// Tasks arranged by their constraints.
 	private ArrayList<InteractiveTask> independentTasks = new ArrayList<InteractiveTask>();
 	private ArrayList<InteractiveTask> antiAffinityTasks = new ArrayList<InteractiveTask>();
@@ -38,19 +89,14 @@ public class InteractiveApplication extends Application {
 	public InteractiveApplication(Simulation simulation) {
 		super(simulation);
 		
-		//if we haven't checked for the 'approximateMVA' property yet, do so now
-		if (!approximateMVAPropertyChecked) {			
-			approximateMVAPropertyChecked = true;
-			if (Simulation.hasProperty("approximateMVA")) {
-				approximateMVA = Boolean.parseBoolean(Simulation.getProperty("approximateMVA"));
-			}
-		}
+		checkProperties();
 	}
 	
 	public InteractiveApplication(Builder builder) {
 		super(builder.simulation);
 		
 		workload = builder.workload;
+		workload.addApplication(this);
 		thinkTime = builder.thinkTime;
 		
 		for (InteractiveTask.Builder taskBuilder : builder.tasks) {
@@ -58,47 +104,117 @@ public class InteractiveApplication extends Application {
 			addTask(task);
 		}
 		
+		checkProperties();
+		
+	}
+
+	private static void checkProperties() {
 		//if we haven't checked for the 'approximateMVA' property yet, do so now
 		if (!approximateMVAPropertyChecked) {			
 			approximateMVAPropertyChecked = true;
 			if (Simulation.hasProperty("approximateMVA")) {
 				approximateMVA = Boolean.parseBoolean(Simulation.getProperty("approximateMVA"));
 			}
+			if (Simulation.hasProperty("mvaAlgorithm")) {
+				mvaAlgorithm = MvaAlgorithm.valueOf(Simulation.getProperty("mvaAlgorithm").trim().toUpperCase());
+				approximateMVA = (mvaAlgorithm != MvaAlgorithm.EXACT);
+			} else {
+				mvaAlgorithm = approximateMVA ? MvaAlgorithm.SCHWEITZER : MvaAlgorithm.EXACT;
+			}
+			if (Simulation.hasProperty("demandAcceleration")) {
+				demandAcceleration = DemandAcceleration.valueOf(Simulation.getProperty("demandAcceleration").trim().toUpperCase());
+			}
+			if (Simulation.hasProperty("mvaWarmStart")) {
+				mvaWarmStart = Boolean.parseBoolean(Simulation.getProperty("mvaWarmStart").trim());
+			}
+			if (Simulation.hasProperty("mvaWarmStartThreshold")) {
+				mvaWarmStartThreshold = Double.parseDouble(Simulation.getProperty("mvaWarmStartThreshold").trim());
+			}
+			if (Simulation.hasProperty("maxWorkloadBinarySearch")) {
+				maxWorkloadBinarySearch = Boolean.parseBoolean(Simulation.getProperty("maxWorkloadBinarySearch").trim());
+			}
 		}
-		
 	}
-
+	
 	@Override
 	public void initializeScheduling() {
 		
 		schedulingRounds = 0;
 		
-		//reset scheduled resources and demand
+		//gather the task instances into the state arrays. The previous MVA solution is kept if they have not changed.
+		int size = countInstances();
+		boolean instancesChanged = (size != nInstances);
+		if (size > instances.length) {
+			int capacity = Math.max(size, instances.length * 2);
+			instances = Arrays.copyOf(instances, capacity);
+			serviceTimes = Arrays.copyOf(serviceTimes, capacity);
+			utilizations = Arrays.copyOf(utilizations, capacity);
+			mvaServiceTimes = Arrays.copyOf(mvaServiceTimes, capacity);
+			mvaVisitRatios = Arrays.copyOf(mvaVisitRatios, capacity);
+		}
+		
+		int i = 0;
 		for (InteractiveTask task : tasks) {
 			for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-				instance.resourceScheduled = new Resources(task.getResourceSize());
-				instance.resourceScheduled.setCpu(instance.getVM().getMaxCpu()); //use the VMs max CPU capacity, as it may be on a different speed core than the Task size specifies 
+				if (instances[i] != instance) {
+					instances[i] = instance;
+					instancesChanged = true;
+				}
+				
+				//reset scheduled resources and demand, reusing the instance's Resources
+				instance.initialResourceScheduled.set(task.getResourceSize());
+				instance.initialResourceScheduled.setCpu(instance.getVM().getMaxCpu()); //use the VMs max CPU capacity, as it may be on a different speed core than the Task size specifies 
+				instance.resourceScheduled = instance.initialResourceScheduled;
 
-				instance.resourceDemand = new Resources(instance.resourceScheduled);
+				instance.resourceDemand.set(instance.resourceScheduled);
 				
 				instance.setFullDemand(null); //will be calculated on first 'updateDemand' call
 				instance.updateVisitRatio(); //gets the current visit ratio from the task load balancer
 				
 				instance.getUtilizationDeltas().clear();
+				instance.nUtilizationIterates = 0;
+				
+				serviceTimes[i] = instance.getServiceTime(); //depends only on the host and migration state, so is fixed during scheduling
+				utilizations[i] = instance.getUtilization();
+				++i;
 			}
-		}		
+		}
+		Arrays.fill(instances, size, instances.length, null);
+		
+		if (instancesChanged) {
+			mvaSolver.reset(size, thinkTime);
+			mvaClients = -1; //there is no previous solution for these instances
+		}
+		nInstances = size;
+		stateScheduled = true;
 	}
 	
+	/**
+	 * Copy the results of scheduling from the state arrays to the task instances
+	 */
 	@Override
 	public void postScheduling() {
 		//TODO in a batch application, this could recalculate completion time and move a completion event
+		
+		if (!stateScheduled)
+			return;
+		stateScheduled = false;
+		
+		for (int i = 0; i < nInstances; ++i) {
+			InteractiveTaskInstance instance = instances[i];
+			instance.setEffectiveServiceTime(mvaSolver.getServiceTime(i));
+			instance.setQueueLength(mvaSolver.getQueueLength(i));
+			instance.setResponseTime(mvaSolver.getResponseTime(i));
+			instance.setThroughput(throughput * mvaSolver.getVisitRatio(i));
+			instance.setUtilization(utilizations[i]);
+		}
 	}
 	
 	@Override
 	public boolean updateDemand() {
 	
 		if (++schedulingRounds > 100) {
-			simulation.getSimulationMetrics().incrementApplicationSchedulingTimedOut();
+			simulation.getSimulationMetrics().incrementApplicationSchedulingTimedOut(this);
 			return false;
 		}
 		
@@ -112,157 +228,249 @@ public class InteractiveApplication extends Application {
 			}
 		}
 		if (dead || !this.isActive()) {
-			for (InteractiveTask task : tasks) {
-				for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-					instance.getResourceDemand().setCpu(0);
-					instance.setFullDemand(new Resources(instance.getResourceDemand()));
-					instance.setUtilization(0);
-					instance.setResponseTime(0);
-					instance.setThroughput(0);
-				}
+			for (int i = 0; i < nInstances; ++i) {
+				InteractiveTaskInstance instance = instances[i];
+				instance.getResourceDemand().setCpu(0);
+				instance.setFullDemand(new Resources(instance.getResourceDemand()));
+				utilizations[i] = 0;
+				mvaSolver.setResponseTime(i, 0);
 			}
 			throughput = 0;
 			responseTime = Double.MAX_VALUE;
+			mvaClients = -1;
 			return false;
 		}
 		
 		//calculate effective service time
-		for (InteractiveTask task : tasks) {
-			for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-				if (instance.getResourceDemand().getCpu() > instance.getResourceScheduled().getCpu()) {
-					instance.setEffectiveServiceTime(instance.getServiceTime() * (instance.getResourceDemand().getCpu() / (float)instance.getResourceScheduled().getCpu()));
-				} else {
-					instance.setEffectiveServiceTime(instance.getServiceTime());
-				}
+		mvaSolver.setThinkTime(thinkTime);
+		for (int i = 0; i < nInstances; ++i) {
+			InteractiveTaskInstance instance = instances[i];
+			double effectiveServiceTime = serviceTimes[i];
+			if (instance.getResourceDemand().getCpu() > instance.getResourceScheduled().getCpu()) {
+				effectiveServiceTime = serviceTimes[i] * (instance.getResourceDemand().getCpu() / (float)instance.getResourceScheduled().getCpu());
 			}
+			mvaSolver.setInstance(i, effectiveServiceTime, instance.getVisitRatio());
 		}
 		
-		//calculate new values for application model using MVA or Schweitzer's approximate MVA, depending on user setting
-		if (!approximateMVA) {
-			//execute MVA algorithm
-			for (InteractiveTask task : tasks) {
-				for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-					instance.setQueueLength(0);
-				}
+		boolean warmStart = mvaAlgorithm == MvaAlgorithm.SCHWEITZER && canWarmStart(nClients);
+		boolean sameInputs = warmStart && hasSameMvaInputs(nClients);
+		
+		//look up a previous solution for the same inputs, if solutions are cached. A network with no clients is not worth caching
+		MvaSolutionCache cache = simulation.getMvaSolutionCache();
+		MvaSolutionCache.Key cacheKey = null;
+		MvaSolutionCache.Solution cachedSolution = null;
+		if (cache != null && !sameInputs && nClients > 0) {
+			cacheKey = cache.createKey(nClients, mvaSolver);
+			cachedSolution = cache.get(cacheKey);
+			simulation.getSimulationMetrics().recordMvaCacheLookup(cachedSolution != null);
+		}
+		
+		//calculate new values for application model using MVA, Schweitzer's approximate MVA or Linearizer, depending on user setting
+		if (cachedSolution != null) {
+			applyMvaSolution(cachedSolution);
+			if (mvaAlgorithm == MvaAlgorithm.SCHWEITZER) {
+				recordMvaInputs(nClients);
 			}
+		} else if (mvaAlgorithm == MvaAlgorithm.LINEARIZER) {
+			mvaSolver.solveLinearizer(nClients, maxQueueError);
+			responseTime = mvaSolver.getResponseTime();
+			throughput = mvaSolver.getThroughput();
 			
-			for (int i = 1; i <= nClients; ++i) {
-				
-				responseTime = 0;
-				for (InteractiveTask task : tasks) {
-					for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-						instance.setResponseTime(instance.getEffectiveServiceTime() * (instance.getQueueLength() + 1));
-						
-						responseTime += instance.getResponseTime() * instance.getVisitRatio();
-					}
-				}
-				
-				throughput = i / (thinkTime + responseTime);
-				
-				for (InteractiveTask task : tasks) {
-					for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-						instance.setQueueLength(throughput * instance.getVisitRatio() * instance.getResponseTime());
-					}
-				}
-	
-			}
-			//end of MVA
-		} else {
-			//execute Schweitzer's approximate MVA algorithm
-			int nInstances = 0;
-			for (InteractiveTask task : tasks) {
-				nInstances += task.getInteractiveTaskInstances().size();
+			if (cacheKey != null) {
+				cache.put(cacheKey, getMvaSolution());
 			}
+		} else if (mvaAlgorithm == MvaAlgorithm.EXACT) {
+			mvaSolver.solveExact(nClients);
+			responseTime = mvaSolver.getResponseTime();
+			throughput = mvaSolver.getThroughput();
 			
-			for (InteractiveTask task : tasks) {
-				for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-					instance.setQueueLength(nClients / (double)nInstances);
-				}
+			if (cacheKey != null) {
+				cache.put(cacheKey, getMvaSolution());
 			}
-			
-			double maxChange = Double.MAX_VALUE;
-			while (maxChange > maxQueueError) {
-				
-				responseTime = 0;
-				for (InteractiveTask task : tasks) {
-					for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-						if (nClients > 0) {
-							instance.setResponseTime(instance.getEffectiveServiceTime() * (1 + (((nClients - 1) / (double)nClients) * instance.getQueueLength())));
-						} else {
-							instance.setResponseTime(0); //prevent responseTime from becoming NaN if there are no clients
-						}
-						
-						responseTime += instance.getResponseTime() * instance.getVisitRatio();
+		} else {
+			//execute Schweitzer's approximate MVA algorithm
+			if (sameInputs) {
+				//the previous solution is for exactly the same inputs, so its queue lengths, response times and throughput still hold
+				simulation.getSimulationMetrics().recordMvaSolve(true, 0);
+			} else {
+				for (int i = 0; i < nInstances; ++i) {
+					if (warmStart) {
+						mvaSolver.setQueueLength(i, mvaSolver.getQueueLength(i) * (nClients / (double)mvaClients));
+					} else {
+						mvaSolver.setQueueLength(i, nClients / (double)nInstances);
 					}
 				}
 				
-				throughput = nClients / (thinkTime + responseTime);
+				mvaSolver.solveSchweitzer(nClients, maxQueueError);
+				responseTime = mvaSolver.getResponseTime();
+				throughput = mvaSolver.getThroughput();
 				
-				maxChange = 0;
-				for (InteractiveTask task : tasks) {
-					for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-						maxChange = Math.max(maxChange, Math.abs(instance.getQueueLength() - (throughput * instance.getVisitRatio() * instance.getResponseTime())));
-						instance.setQueueLength(throughput * instance.getVisitRatio() * instance.getResponseTime());
-					}
+				recordMvaInputs(nClients);
+				simulation.getSimulationMetrics().recordMvaSolve(warmStart, mvaSolver.getIterations());
+				
+				if (cacheKey != null) {
+					cache.put(cacheKey, getMvaSolution());
 				}
-	
 			}
-			//end of Schweitzer's approximate MVA
 		}
 
-		//calculate instance throughput, utilization, demand		
+		//calculate instance utilization and demand
 		boolean updated = false;
-		for (InteractiveTask task : tasks) {			
-			for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-				instance.setThroughput(throughput * instance.getVisitRatio());
-				
-				double lastUtilization = instance.getUtilization();
-				instance.setUtilization(throughput * instance.getServiceTime() * instance.getVisitRatio());
-				
-				instance.getUtilizationDeltas().addValue(Math.abs(lastUtilization - instance.getUtilization()));
-				
-				if (instance.getUtilizationDeltas().getMean() > 0.02						//mean change is greater than 2% utilization 
-						&& instance.getUtilizationDeltas().getStandardDeviation() > 0		//checks to ensure that all utilization changes are not equal (prevents thrashing with > 0.02 difference)
-						&& Math.abs(lastUtilization - instance.getUtilization()) > 0) {		//allows early termination if no change
-					updated = true;
+		for (int i = 0; i < nInstances; ++i) {
+			InteractiveTaskInstance instance = instances[i];
+			
+			double lastUtilization = utilizations[i];
+			utilizations[i] = accelerate(instance, throughput * serviceTimes[i] * mvaSolver.getVisitRatio(i));
+			
+			instance.getUtilizationDeltas().addValue(Math.abs(lastUtilization - utilizations[i]));
+			
+			if (instance.getUtilizationDeltas().getMean() > 0.02						//mean change is greater than 2% utilization 
+					&& instance.getUtilizationDeltas().getStandardDeviation() > 0		//checks to ensure that all utilization changes are not equal (prevents thrashing with > 0.02 difference)
+					&& Math.abs(lastUtilization - utilizations[i]) > 0) {		//allows early termination if no change
+				updated = true;
+			}
+			
+			instance.getResourceDemand().setCpu((int)((instance.getVM().getMaxCpu() * utilizations[i]) * (mvaSolver.getServiceTime(i) / serviceTimes[i])));
+			
+			//set other resource demands to full task size
+			Resources taskSize = instance.getTask().getResourceSize();
+			instance.getResourceDemand().setMemory(taskSize.getMemory());
+			instance.getResourceDemand().setBandwidth(taskSize.getBandwidth());
+			instance.getResourceDemand().setStorage(taskSize.getStorage());
+			
+			if (instance.getFullDemand() == null) {
+				//the first time demand is calculated, we get the full resource demand assuming full resource availability (no contention)
+				instance.setFullDemand(new Resources(instance.getResourceDemand()));
+			}
+		}
+
+		//return true if utilization values changed (there was an update made), false otherwise
+		return updated;
+	}
+
+	private int countInstances() {
+		int nInstances = 0;
+		for (InteractiveTask task : tasks) {
+			nInstances += task.getInteractiveTaskInstances().size();
+		}
+		return nInstances;
+	}
+	
+	/**
+	 * Record the inputs of the current approximate MVA solution, from which the next solution may be warm started
+	 * @param nClients
+	 */
+	private void recordMvaInputs(int nClients) {
+		mvaClients = nClients;
+		for (int i = 0; i < nInstances; ++i) {
+			mvaServiceTimes[i] = mvaSolver.getServiceTime(i);
+			mvaVisitRatios[i] = mvaSolver.getVisitRatio(i);
+		}
+	}
+	
+	/**
+	 * Get the current MVA solution, to be cached
+	 * @return
+	 */
+	private MvaSolutionCache.Solution getMvaSolution() {
+		double[] responseTimes = new double[nInstances];
+		double[] queueLengths = new double[nInstances];
+		for (int i = 0; i < nInstances; ++i) {
+			responseTimes[i] = mvaSolver.getResponseTime(i);
+			queueLengths[i] = mvaSolver.getQueueLength(i);
+		}
+		return new MvaSolutionCache.Solution(responseTime, throughput, responseTimes, queueLengths);
+	}
+	
+	/**
+	 * Set the application and task instance response times and queue lengths, and the application throughput, from a
+	 * cached MVA solution
+	 * @param solution
+	 */
+	private void applyMvaSolution(MvaSolutionCache.Solution solution) {
+		responseTime = solution.getResponseTime();
+		throughput = solution.getThroughput();
+		for (int i = 0; i < nInstances; ++i) {
+			mvaSolver.setResponseTime(i, solution.getResponseTime(i));
+			mvaSolver.setQueueLength(i, solution.getQueueLength(i));
+		}
+	}
+	
+	/**
+	 * Determine if approximate MVA can start from the previous solution. See mvaWarmStart.
+	 * @param nClients
+	 * @return
+	 */
+	private boolean canWarmStart(int nClients) {
+		if (!mvaWarmStart || mvaClients <= 0 || nClients <= 0)
+			return false;
+		if (Math.abs(nClients - mvaClients) > mvaWarmStartThreshold * mvaClients)
+			return false;
+		
+		for (int i = 0; i < nInstances; ++i) {
+			if (mvaServiceTimes[i] <= 0 ||
+					Math.abs(mvaSolver.getServiceTime(i) - mvaServiceTimes[i]) > mvaWarmStartThreshold * mvaServiceTimes[i])
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Determine if the number of clients and the effective service time and visit ratio of every task instance are
+	 * exactly those of the previous approximate MVA solution. Assumes canWarmStart.
+	 * @param nClients
+	 * @return
+	 */
+	private boolean hasSameMvaInputs(int nClients) {
+		if (nClients != mvaClients)
+			return false;
+		
+		for (int i = 0; i < nInstances; ++i) {
+			if (mvaSolver.getServiceTime(i) != mvaServiceTimes[i] || mvaSolver.getVisitRatio(i) != mvaVisitRatios[i])
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Apply the selected DemandAcceleration to a newly calculated task instance utilization
+	 * @param instance
+	 * @param utilization The newly calculated utilization
+	 * @return The utilization to use for the next round
+	 */
+	private double accelerate(InteractiveTaskInstance instance, double utilization) {
+		switch (demandAcceleration) {
+			case AITKEN:
+				if (instance.nUtilizationIterates < 2) {
+					instance.utilizationIterates[instance.nUtilizationIterates++] = utilization;
+					return utilization;
 				}
 				
-				instance.getResourceDemand().setCpu((int)((instance.getVM().getMaxCpu() * instance.getUtilization()) * (instance.getEffectiveServiceTime() / instance.getServiceTime())));
-				
-				//set other resource demands to full task size
-				instance.getResourceDemand().setMemory(task.getResourceSize().getMemory());
-				instance.getResourceDemand().setBandwidth(task.getResourceSize().getBandwidth());
-				instance.getResourceDemand().setStorage(task.getResourceSize().getStorage());
+				double accelerated = utilization;
+				double delta = instance.utilizationIterates[1] - instance.utilizationIterates[0];
+				double nextDelta = utilization - instance.utilizationIterates[1];
 				
-				if (instance.getFullDemand() == null) {
-					//the first time demand is calculated, we get the full resource demand assuming full resource availability (no contention)
-					instance.setFullDemand(new Resources(instance.getResourceDemand()));
+				//only extrapolate if the iterates are contracting quickly towards a fixed point (the ratio is negative if they
+				//oscillate around it). Slow contraction amplifies the noise from integer CPU scheduling into a large overshoot.
+				if (delta != 0) {
+					double ratio = nextDelta / delta;
+					if (ratio > -1 && ratio <= maxAitkenRatio) {
+						double extrapolated = utilization + nextDelta * ratio / (1 - ratio);
+						if (extrapolated > 0) {
+							accelerated = extrapolated;
+							//changes leading up to the extrapolated value no longer indicate whether it has converged
+							instance.getUtilizationDeltas().clear();
+						}
+					}
 				}
 				
-			}
+				//the extrapolated value starts the next sequence of iterates
+				instance.utilizationIterates[0] = accelerated;
+				instance.nUtilizationIterates = 1;
+				return accelerated;
+			default:
+				return utilization;
 		}
-
-		//TODO remove, debugging code
-//		int i = 1;
-//		
-//		System.out.println("App" + this.getId() + " N=" + nClients + " R=" + responseTime);
-//		for (InteractiveTask task : tasks) {
-//			int j = 1;
-//			for (InteractiveTaskInstance instance : task.getInteractiveTaskInstances()) {
-//				System.out.println("Task " + i + "-" + j +
-//						" V=" + instance.getVisitRatio() + 
-//						" R=" + instance.getResponseTime() +
-//						" Q=" + instance.getQueueLength() +
-//						" U=" + instance.getUtilization() +
-//						" S=" + instance.getServiceTime() +
-//						" CPU=[" + instance.getResourceScheduled().getCpu() + "/" + instance.getResourceDemand().getCpu() + "]");
-//				++j;
-//			}
-//			++i;
-//		}
-				
-		//return true if utilization values changed (there was an update made), false otherwise
-		return updated;
 	}
 
 	@Override
@@ -276,6 +484,14 @@ public class InteractiveApplication extends Application {
 	}
 	
 
+	@Override
+	public void shutdownApplication(AutonomicManager target, Simulation simulation) {
+		super.shutdownApplication(target, simulation);
+		
+		//stop receiving work, so that changes in workload no longer mark this application as changed
+		workload.removeApplication(this);
+	}
+	
 	@Override
 	public int getTotalCpuDemand() {
 		return totalCpuDemand;
@@ -296,13 +512,79 @@ public class InteractiveApplication extends Application {
 	
 	public int calculateMaxWorkload(double responseTimeLimit, double utilizationLimit) {
 		
+		//applications with the same tasks, think time and limits have the same maximum workload, so reuse it
+		MaxWorkloadCache cache = simulation.getMaxWorkloadCache();
+		MaxWorkloadCache.Key key = null;
+		Integer maxWorkload = null;
+		if (cache != null) {
+			key = createMaxWorkloadKey(responseTimeLimit, utilizationLimit);
+			maxWorkload = cache.get(key);
+			if (maxWorkload != null) {
+				return maxWorkload;
+			}
+		}
+		
 		//we need to make the calculation using the algorithm that will be in use for the simulation, as results can vary slightly (minor, but enough to cause unwanted SLA violations)
-		if (approximateMVA) {
-			return calculateMaxWorkloadApproxMVA(responseTimeLimit, utilizationLimit);
-		} else {
-			return calculateMaxWorkloadMVA(responseTimeLimit, utilizationLimit);
+		switch (mvaAlgorithm) {
+			case LINEARIZER:
+				maxWorkload = calculateMaxWorkloadLinearizer(responseTimeLimit, utilizationLimit);
+				break;
+			case SCHWEITZER:
+				maxWorkload = calculateMaxWorkloadApproxMVA(responseTimeLimit, utilizationLimit);
+				break;
+			default:
+				maxWorkload = calculateMaxWorkloadMVA(responseTimeLimit, utilizationLimit);
 		}
 		
+		if (cache != null) {
+			cache.put(key, maxWorkload);
+		}
+		return maxWorkload;
+	}
+	
+	/**
+	 * Find the largest number of clients that does not exceed the limits, trying each number of clients in turn until the
+	 * limits are exceeded
+	 * @param limitCheck
+	 * @return
+	 */
+	private static int scanMaxWorkload(WorkloadLimitCheck limitCheck) {
+		int nClients = 1;
+		while (!limitCheck.exceedsLimits(nClients)) {
+			++nClients;
+		}
+		return nClients - 1;
+	}
+	
+	/**
+	 * Find the largest number of clients that does not exceed the limits, given that the limits are exceeded at every number
+	 * of clients from the first at which they are exceeded. The number of clients is doubled until the limits are exceeded,
+	 * and the first number at which they are then found by binary search, so that the model is solved for O(log N) numbers
+	 * of clients rather than N.
+	 * @param limitCheck
+	 * @return
+	 */
+	private static int searchMaxWorkload(WorkloadLimitCheck limitCheck) {
+		//bracket the first number of clients exceeding the limits between lower (exclusive) and upper (inclusive)
+		int lower = 0;
+		int upper = 1;
+		while (!limitCheck.exceedsLimits(upper)) {
+			lower = upper;
+			if (upper > Integer.MAX_VALUE / 2)
+				throw new IllegalStateException("Application workload does not reach the response time or utilization limit");
+			upper *= 2;
+		}
+		
+		while (upper - lower > 1) {
+			int middle = lower + ((upper - lower) / 2);
+			if (limitCheck.exceedsLimits(middle)) {
+				upper = middle;
+			} else {
+				lower = middle;
+			}
+		}
+		
+		return upper - 1;
 	}
 	
 	private int calculateMaxWorkloadMVA(double responseTimeLimit, double utilizationLimit) {
@@ -357,12 +639,9 @@ public class InteractiveApplication extends Application {
 		
 	}
 	
-	private int calculateMaxWorkloadApproxMVA(double responseTimeLimit, double utilizationLimit) {
+	private int calculateMaxWorkloadApproxMVA(final double responseTimeLimit, final double utilizationLimit) {
 		
-		double responseTime = 0;
-		double throughput = 0;
-		int nClients;
-		ArrayList<DummyTask> dummyTasks = new ArrayList<DummyTask>();
+		final ArrayList<DummyTask> dummyTasks = new ArrayList<DummyTask>();
 		
 		//build array of tasks, one for each task instances, assuming each task has maxTaskSize instances
 		for (InteractiveTask task : tasks) {
@@ -374,51 +653,94 @@ public class InteractiveApplication extends Application {
 			}
 		}
 		
-		//Use MVA algorithm to find the number of clients, terminating when the response time exceeds the limit OR a task utilization reaches 1
-		for (DummyTask t : dummyTasks) {
-			t.queueLength = 0;
-		}
-		
-		boolean done = false;
-		
-		nClients = 0;
-		while (responseTime <= responseTimeLimit && !done) {
-			++nClients;
-			
-			
-			throughput = 0;
-			for (DummyTask t : dummyTasks) {
-				t.queueLength = nClients / dummyTasks.size();
-			}
+		//Use approximate MVA to find the number of clients at which the response time exceeds the limit OR a task utilization reaches the limit.
+		//Each number of clients is solved independently, so they can be searched in any order
+		WorkloadLimitCheck limitCheck = new WorkloadLimitCheck() {
 			
-			double maxChange = Double.MAX_VALUE;
-			while (maxChange > maxQueueError) {
+			@Override
+			public boolean exceedsLimits(int nClients) {
+				boolean done = false;
+				double responseTime = 0;
+				double throughput = 0;
 				
-				responseTime = 0;
 				for (DummyTask t : dummyTasks) {
-					t.responseTime = t.serviceTime * (1 + ((nClients - 1)/(double)nClients) * t.queueLength);
-					responseTime += t.responseTime * t.visits;
+					t.queueLength = nClients / dummyTasks.size();
 				}
 				
-				throughput = nClients / (thinkTime + responseTime);
-				
-				maxChange = 0;
-				for (DummyTask t : dummyTasks) {
-					maxChange = Math.max(maxChange, Math.abs(t.queueLength - throughput * t.visits * t.responseTime));
-					t.queueLength = throughput * t.visits * t.responseTime;
+				double maxChange = Double.MAX_VALUE;
+				while (maxChange > maxQueueError) {
 					
-					t.utilization = throughput * t.serviceTime * t.visits;
+					responseTime = 0;
+					for (DummyTask t : dummyTasks) {
+						t.responseTime = t.serviceTime * (1 + ((nClients - 1)/(double)nClients) * t.queueLength);
+						responseTime += t.responseTime * t.visits;
+					}
 					
-					//terminate if utilization reaches utilization limit on one task instance
-					if (t.utilization >= utilizationLimit) done = true;
+					throughput = nClients / (thinkTime + responseTime);
+					
+					maxChange = 0;
+					for (DummyTask t : dummyTasks) {
+						maxChange = Math.max(maxChange, Math.abs(t.queueLength - throughput * t.visits * t.responseTime));
+						t.queueLength = throughput * t.visits * t.responseTime;
+						
+						t.utilization = throughput * t.serviceTime * t.visits;
+						
+						//terminate if utilization reaches utilization limit on one task instance
+						if (t.utilization >= utilizationLimit) done = true;
+						
+					}
 					
 				}
 				
+				return done || responseTime > responseTimeLimit;
 			}
 			
+		};
+		
+		if (maxWorkloadBinarySearch) {
+			return searchMaxWorkload(limitCheck);
 		}
-
-		return nClients - 1;
+		return scanMaxWorkload(limitCheck);
+		
+	}
+	
+	private int calculateMaxWorkloadLinearizer(final double responseTimeLimit, final double utilizationLimit) {
+		
+		final ArrayList<DummyTask> dummyTasks = new ArrayList<DummyTask>();
+		
+		//build array of tasks, one for each task instances, assuming each task has maxTaskSize instances
+		for (InteractiveTask task : tasks) {
+			
+			for (int i = 0; i < task.getMaxInstances(); ++i) {
+				DummyTask dummy = new DummyTask(task.getNormalServiceTime(), task.getVisitRatio() / task.getMaxInstances());
+				dummyTasks.add(dummy);
+				
+			}
+		}
+		
+		final MvaSolver solver = new MvaSolver(dummyTasks.size());
+		solver.reset(dummyTasks.size(), thinkTime);
+		for (int i = 0; i < dummyTasks.size(); ++i) {
+			solver.setInstance(i, dummyTasks.get(i).serviceTime, dummyTasks.get(i).visits);
+		}
+		
+		//Use Linearizer to find the number of clients at which the response time exceeds the limit OR a task utilization reaches the limit
+		return searchMaxWorkload(new WorkloadLimitCheck() {
+			
+			@Override
+			public boolean exceedsLimits(int nClients) {
+				solver.solveLinearizer(nClients, maxQueueError);
+				
+				boolean done = false;
+				for (int i = 0; i < dummyTasks.size(); ++i) {
+					//terminate if utilization reaches utilization limit on one task instance
+					if (solver.getUtilization(i, dummyTasks.get(i).serviceTime) >= utilizationLimit) done = true;
+				}
+				
+				return done || solver.getResponseTime() > responseTimeLimit;
+			}
+			
+		});
 		
 	}
 	
@@ -451,7 +773,11 @@ public class InteractiveApplication extends Application {
 	 * @param workload
 	 */
 	public void setWorkload(Workload workload) {
+		if (this.workload != null) {
+			this.workload.removeApplication(this);
+		}
 		this.workload = workload;
+		workload.addApplication(this);
 	}
 	
 	public static class Builder implements ObjectBuilder<Application> {
@@ -555,6 +881,40 @@ public class InteractiveApplication extends Application {
 		affinityTasks.add(tasks);
 	}
 	
+	/**
+	 * Determines if the model of an application exceeds its response time or utilization limit at a number of clients
+	 */
+	private interface WorkloadLimitCheck {
+		
+		public boolean exceedsLimits(int nClients);
+		
+	}
+	
+	/**
+	 * Create a key for the inputs to calculateMaxWorkload: the MVA algorithm and search, think time and limits, and the
+	 * service time, visit ratio and maximum instances of each task
+	 * @param responseTimeLimit
+	 * @param utilizationLimit
+	 * @return
+	 */
+	private MaxWorkloadCache.Key createMaxWorkloadKey(double responseTimeLimit, double utilizationLimit) {
+		double[] values = new double[5 + (tasks.size() * 3)];
+		values[0] = mvaAlgorithm.ordinal();
+		values[1] = maxWorkloadBinarySearch ? 1 : 0;
+		values[2] = thinkTime;
+		values[3] = responseTimeLimit;
+		values[4] = utilizationLimit;
+		
+		int i = 5;
+		for (InteractiveTask task : tasks) {
+			values[i++] = task.getNormalServiceTime();
+			values[i++] = task.getVisitRatio();
+			values[i++] = task.getMaxInstances();
+		}
+		
+		return new MaxWorkloadCache.Key(values);
+	}
+	
 	private class DummyTask {
 		double serviceTime;
 		double visits;
@@ -4,6 +4,7 @@ import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 
 import edu.uwo.csd.dcsim.common.HashCodeUtil;
 import edu.uwo.csd.dcsim.core.Simulation;
+import edu.uwo.csd.dcsim.host.Resources;
 
 /**
  * @author Michael Tighe
@@ -20,6 +21,13 @@ public class InteractiveTaskInstance extends TaskInstance {
 	private DescriptiveStatistics utilizationDeltas = new DescriptiveStatistics(5);
 	private double visitRatio;
 	
+	//consecutive utilization values within a time step, for DemandAcceleration.AITKEN
+	double[] utilizationIterates = new double[2];
+	int nUtilizationIterates = 0;
+	
+	//the resources scheduled at the start of each scheduling step, reused to avoid allocating them every time step
+	final Resources initialResourceScheduled = new Resources();
+	
 	private final int hashCode;
 	
 	public InteractiveTaskInstance(InteractiveTask task) {
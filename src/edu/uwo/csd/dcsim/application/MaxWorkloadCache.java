@@ -0,0 +1,91 @@
+package edu.uwo.csd.dcsim.application;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of the maximum workloads calculated by InteractiveApplication, shared by the
+ * applications of a Simulation. Applications are commonly created from the same template, so have the same maximum
+ * workload. A maximum workload is keyed by everything it is calculated from: the MVA algorithm and search used, the think
+ * time and limits, and the service time, visit ratio and maximum instances of each task.
+ *
+ * Methods are synchronized, as applications may be created from parallel code.
+ *
+ */
+public class MaxWorkloadCache {
+
+	private final int capacity;
+	private final LinkedHashMap<Key, Integer> maxWorkloads;
+
+	/**
+	 * @param capacity The maximum number of maximum workloads held
+	 */
+	public MaxWorkloadCache(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Max workload cache capacity must be at least 1");
+
+		this.capacity = capacity;
+
+		maxWorkloads = new LinkedHashMap<Key, Integer>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+				return size() > MaxWorkloadCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the maximum workload cached for the key, or null if there is none
+	 * @param key
+	 * @return
+	 */
+	public synchronized Integer get(Key key) {
+		return maxWorkloads.get(key);
+	}
+
+	public synchronized void put(Key key, int maxWorkload) {
+		maxWorkloads.put(key, maxWorkload);
+	}
+
+	public synchronized int size() {
+		return maxWorkloads.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * The inputs to a maximum workload calculation
+	 */
+	public static final class Key {
+
+		private final double[] values;
+		private final int hashCode;
+
+		Key(double[] values) {
+			this.values = values;
+			this.hashCode = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key)obj;
+			return hashCode == other.hashCode && Arrays.equals(values, other.values);
+		}
+
+	}
+
+}
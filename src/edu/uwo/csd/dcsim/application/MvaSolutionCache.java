@@ -0,0 +1,167 @@
+package edu.uwo.csd.dcsim.application;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of MVA solutions, shared by the InteractiveApplications of a Simulation. A solution
+ * is keyed by the number of clients, the think time, and the effective service time and visit ratio of each task
+ * instance, in order. Service times and visit ratios are quantised to a relative precision, so that inputs differing by
+ * less than the precision share a solution. A precision of 0 keys on the exact inputs, in which case a cached solution is
+ * identical to the one that would be calculated.
+ *
+ * The cache is not thread-safe, and Simulation does not allow it to be enabled when application demand is updated in
+ * parallel: which solutions are held and evicted would depend on the order in which applications reached the cache.
+ *
+ */
+public class MvaSolutionCache {
+
+	private static final int MANTISSA_BITS = 52;
+
+	private final int capacity;
+	private final int shift; //number of low-order mantissa bits discarded by quantisation
+	private final LinkedHashMap<Key, Solution> solutions;
+
+	/**
+	 * @param capacity The maximum number of solutions held
+	 * @param precision The relative precision to which service times and visit ratios are quantised, or 0 for exact inputs
+	 */
+	public MvaSolutionCache(int capacity, double precision) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("MVA solution cache capacity must be at least 1");
+		if (precision < 0 || precision >= 1)
+			throw new IllegalArgumentException("MVA solution cache precision must be in [0, 1)");
+
+		this.capacity = capacity;
+
+		if (precision == 0) {
+			shift = 0;
+		} else {
+			//keep enough mantissa bits that the quantisation step is no larger than the precision
+			int bits = (int)Math.ceil(-Math.log(precision) / Math.log(2));
+			shift = Math.max(0, MANTISSA_BITS - bits);
+		}
+
+		solutions = new LinkedHashMap<Key, Solution>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Solution> eldest) {
+				return size() > MvaSolutionCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Create a key for the MVA inputs held by a solver: its think time, and the effective service time and visit ratio of
+	 * each task instance
+	 * @param nClients
+	 * @param solver
+	 * @return
+	 */
+	public Key createKey(int nClients, MvaSolver solver) {
+		int size = solver.size();
+		long[] values = new long[2 + (size * 2)];
+		values[0] = nClients;
+		values[1] = Double.doubleToLongBits(solver.getThinkTime());
+		for (int i = 0; i < size; ++i) {
+			values[2 + (i * 2)] = quantise(solver.getServiceTime(i));
+			values[3 + (i * 2)] = quantise(solver.getVisitRatio(i));
+		}
+		return new Key(values);
+	}
+
+	/**
+	 * Round a value to the cache precision, by rounding its mantissa to the retained bits. Values remain ordered, and a
+	 * carry out of the mantissa correctly increments the exponent.
+	 * @param value
+	 * @return
+	 */
+	private long quantise(double value) {
+		long bits = Double.doubleToLongBits(value);
+		if (shift == 0)
+			return bits;
+		return (bits + (1L << (shift - 1))) >> shift;
+	}
+
+	/**
+	 * Get the solution cached for the key, or null if there is none
+	 * @param key
+	 * @return
+	 */
+	public Solution get(Key key) {
+		return solutions.get(key);
+	}
+
+	public void put(Key key, Solution solution) {
+		solutions.put(key, solution);
+	}
+
+	public int size() {
+		return solutions.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * The quantised inputs of an MVA solution
+	 */
+	public static final class Key {
+
+		private final long[] values;
+		private final int hashCode;
+
+		private Key(long[] values) {
+			this.values = values;
+			this.hashCode = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key)obj;
+			return hashCode == other.hashCode && Arrays.equals(values, other.values);
+		}
+
+	}
+
+	/**
+	 * An MVA solution: the application response time and throughput, and the response time and queue length of each task
+	 * instance, in the order of the key. Instance throughput and utilization follow from the application throughput.
+	 */
+	public static final class Solution {
+
+		private final double responseTime;
+		private final double throughput;
+		private final double[] responseTimes;
+		private final double[] queueLengths;
+
+		public Solution(double responseTime, double throughput, double[] responseTimes, double[] queueLengths) {
+			this.responseTime = responseTime;
+			this.throughput = throughput;
+			this.responseTimes = responseTimes;
+			this.queueLengths = queueLengths;
+		}
+
+		public double getResponseTime() { return responseTime; }
+
+		public double getThroughput() { return throughput; }
+
+		public double getResponseTime(int instance) { return responseTimes[instance]; }
+
+		public double getQueueLength(int instance) { return queueLengths[instance]; }
+
+	}
+
+}
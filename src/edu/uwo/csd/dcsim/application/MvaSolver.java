@@ -0,0 +1,274 @@
+package edu.uwo.csd.dcsim.application;
+
+import java.util.Arrays;
+
+/**
+ * Solves a closed, single class queueing network of task instances with a client think time, using exact Mean Value
+ * Analysis (MVA), Schweitzer's approximate MVA or the Linearizer approximation. Inputs and results are held in arrays
+ * indexed by task instance. The service time of an instance is per visit, and its response time is per visit, as in
+ * InteractiveApplication.
+ *
+ * Exact MVA steps through every population from 1 to the number of clients, so its cost grows with the number of
+ * clients. Schweitzer's approximation estimates the queue lengths seen by an arriving client from the queue lengths at the
+ * full population, and iterates to a fixed point at that population only. Linearizer (Chandy and Neuse, 1982) corrects
+ * that estimate with the change in the fraction of clients at each instance between populations N and N-1, which it
+ * estimates from approximate solutions at both populations. It is considerably more accurate than Schweitzer's
+ * approximation, at a cost of several fixed point solutions, independent of the number of clients.
+ *
+ */
+public class MvaSolver {
+
+	private static final int LINEARIZER_ITERATIONS = 3; //number of times the Linearizer corrections are re-estimated
+	private static final int LINEARIZER_MIN_CLIENTS = 3; //below this number of clients, Linearizer uses exact MVA
+
+	private int size = 0;
+	private double thinkTime = 0;
+	private double[] serviceTimes;
+	private double[] visitRatios;
+	private double[] responseTimes;
+	private double[] queueLengths;
+	private double[] reducedQueueLengths; //Linearizer queue lengths at one fewer client
+	private double[] corrections; //Linearizer change in the fraction of clients at each instance, from N to N-1 clients
+
+	private double responseTime = 0;
+	private double throughput = 0;
+	private int iterations = 0;
+
+	public MvaSolver() {
+		this(8);
+	}
+
+	/**
+	 * @param capacity The initial number of task instances the solver can hold
+	 */
+	public MvaSolver(int capacity) {
+		capacity = Math.max(capacity, 1);
+		serviceTimes = new double[capacity];
+		visitRatios = new double[capacity];
+		responseTimes = new double[capacity];
+		queueLengths = new double[capacity];
+		reducedQueueLengths = new double[capacity];
+		corrections = new double[capacity];
+	}
+
+	/**
+	 * Clear the solver to hold a network of the given number of task instances
+	 * @param size
+	 * @param thinkTime
+	 */
+	public void reset(int size, double thinkTime) {
+		if (size > serviceTimes.length) {
+			int capacity = Math.max(size, serviceTimes.length * 2);
+			serviceTimes = new double[capacity];
+			visitRatios = new double[capacity];
+			responseTimes = new double[capacity];
+			queueLengths = new double[capacity];
+			reducedQueueLengths = new double[capacity];
+			corrections = new double[capacity];
+		}
+		this.size = size;
+		this.thinkTime = thinkTime;
+
+		Arrays.fill(responseTimes, 0, size, 0);
+		Arrays.fill(queueLengths, 0, size, 0);
+		responseTime = 0;
+		throughput = 0;
+		iterations = 0;
+	}
+
+	/**
+	 * Set the (effective) service time and visit ratio of a task instance
+	 * @param instance
+	 * @param serviceTime
+	 * @param visitRatio
+	 */
+	public void setInstance(int instance, double serviceTime, double visitRatio) {
+		serviceTimes[instance] = serviceTime;
+		visitRatios[instance] = visitRatio;
+	}
+
+	public int size() { return size; }
+
+	public double getThinkTime() { return thinkTime; }
+
+	public void setThinkTime(double thinkTime) { this.thinkTime = thinkTime; }
+
+	public double getServiceTime(int instance) { return serviceTimes[instance]; }
+
+	public double getVisitRatio(int instance) { return visitRatios[instance]; }
+
+	public double getResponseTime() { return responseTime; }
+
+	public double getThroughput() { return throughput; }
+
+	/**
+	 * Get the number of fixed point iterations taken by the last approximate solution
+	 * @return
+	 */
+	public int getIterations() { return iterations; }
+
+	public double getResponseTime(int instance) { return responseTimes[instance]; }
+
+	public void setResponseTime(int instance, double responseTime) { responseTimes[instance] = responseTime; }
+
+	public double getQueueLength(int instance) { return queueLengths[instance]; }
+
+	public void setQueueLength(int instance, double queueLength) { queueLengths[instance] = queueLength; }
+
+	/**
+	 * Get the utilization of a task instance at the current throughput, given its service time without contention
+	 * @param instance
+	 * @param serviceTime
+	 * @return
+	 */
+	public double getUtilization(int instance, double serviceTime) {
+		return throughput * serviceTime * visitRatios[instance];
+	}
+
+	/**
+	 * Solve using exact MVA, stepping through each population up to nClients
+	 * @param nClients
+	 */
+	public void solveExact(int nClients) {
+		if (nClients == 0) {
+			solveNoClients();
+			return;
+		}
+
+		Arrays.fill(queueLengths, 0, size, 0);
+		iterations = 0;
+
+		for (int n = 1; n <= nClients; ++n) {
+			responseTime = 0;
+			for (int i = 0; i < size; ++i) {
+				responseTimes[i] = serviceTimes[i] * (queueLengths[i] + 1);
+				responseTime += responseTimes[i] * visitRatios[i];
+			}
+
+			throughput = n / (thinkTime + responseTime);
+
+			for (int i = 0; i < size; ++i) {
+				queueLengths[i] = throughput * visitRatios[i] * responseTimes[i];
+			}
+		}
+	}
+
+	/**
+	 * Solve using Schweitzer's approximate MVA, starting from the current queue lengths, until no queue length changes by
+	 * more than tolerance
+	 * @param nClients
+	 * @param tolerance
+	 */
+	public void solveSchweitzer(int nClients, double tolerance) {
+		if (nClients == 0) {
+			solveNoClients();
+			return;
+		}
+
+		iterations = 0;
+		double maxChange = Double.MAX_VALUE;
+		while (maxChange > tolerance) {
+			++iterations;
+
+			responseTime = 0;
+			for (int i = 0; i < size; ++i) {
+				responseTimes[i] = serviceTimes[i] * (1 + (((nClients - 1) / (double)nClients) * queueLengths[i]));
+				responseTime += responseTimes[i] * visitRatios[i];
+			}
+
+			throughput = nClients / (thinkTime + responseTime);
+
+			maxChange = 0;
+			for (int i = 0; i < size; ++i) {
+				double queueLength = throughput * visitRatios[i] * responseTimes[i];
+				maxChange = Math.max(maxChange, Math.abs(queueLengths[i] - queueLength));
+				queueLengths[i] = queueLength;
+			}
+		}
+	}
+
+	/**
+	 * Solve using the Linearizer approximation, until no queue length changes by more than tolerance. Uses exact MVA for
+	 * very few clients.
+	 * @param nClients
+	 * @param tolerance
+	 */
+	public void solveLinearizer(int nClients, double tolerance) {
+		if (nClients == 0) {
+			solveNoClients();
+			return;
+		}
+		if (nClients < LINEARIZER_MIN_CLIENTS) {
+			solveExact(nClients);
+			return;
+		}
+
+		//start with clients distributed evenly, and no correction (which is Schweitzer's approximation)
+		for (int i = 0; i < size; ++i) {
+			queueLengths[i] = nClients / (double)size;
+			reducedQueueLengths[i] = (nClients - 1) / (double)size;
+			corrections[i] = 0;
+		}
+
+		int totalIterations = 0;
+		for (int k = 0; k < LINEARIZER_ITERATIONS; ++k) {
+			totalIterations += solveCorrected(nClients, queueLengths, tolerance);
+			totalIterations += solveCorrected(nClients - 1, reducedQueueLengths, tolerance);
+
+			for (int i = 0; i < size; ++i) {
+				corrections[i] = (reducedQueueLengths[i] / (nClients - 1)) - (queueLengths[i] / nClients);
+			}
+		}
+		totalIterations += solveCorrected(nClients, queueLengths, tolerance);
+
+		iterations = totalIterations;
+	}
+
+	/**
+	 * Solve a network with no clients, in which no task instance is visited: throughput, response times and queue lengths
+	 * are all 0
+	 */
+	private void solveNoClients() {
+		Arrays.fill(responseTimes, 0, size, 0);
+		Arrays.fill(queueLengths, 0, size, 0);
+		responseTime = 0;
+		throughput = 0;
+		iterations = 0;
+	}
+
+	/**
+	 * The Linearizer core: approximate MVA at population n, estimating the queue length seen by an arriving client as
+	 * (n - 1) * (Q(n) / n + correction), iterated to a fixed point.
+	 * @param n
+	 * @param q The queue lengths at population n, updated in place
+	 * @param tolerance
+	 * @return The number of iterations
+	 */
+	private int solveCorrected(int n, double[] q, double tolerance) {
+		int coreIterations = 0;
+		double maxChange = Double.MAX_VALUE;
+		while (maxChange > tolerance) {
+			++coreIterations;
+
+			responseTime = 0;
+			for (int i = 0; i < size; ++i) {
+				double arrivalQueueLength = (n - 1) * ((q[i] / n) + corrections[i]);
+				if (arrivalQueueLength < 0)
+					arrivalQueueLength = 0;
+				responseTimes[i] = serviceTimes[i] * (1 + arrivalQueueLength);
+				responseTime += responseTimes[i] * visitRatios[i];
+			}
+
+			throughput = n / (thinkTime + responseTime);
+
+			maxChange = 0;
+			for (int i = 0; i < size; ++i) {
+				double queueLength = throughput * visitRatios[i] * responseTimes[i];
+				maxChange = Math.max(maxChange, Math.abs(q[i] - queueLength));
+				q[i] = queueLength;
+			}
+		}
+		return coreIterations;
+	}
+
+}
@@ -60,11 +60,13 @@ public abstract class Task {
 	public void startInstance(TaskInstance instance) {
 		activate();
 		doStartInstance(instance);
+		getApplication().getSimulation().markApplicationDirty(getApplication());
 	}
 	public abstract void doStartInstance(TaskInstance instance);
 	
 	public void stopInstance(TaskInstance instance) {
 		doStopInstance(instance);
+		getApplication().getSimulation().markApplicationDirty(getApplication());
 	}
 	public abstract void doStopInstance(TaskInstance instance);
 	
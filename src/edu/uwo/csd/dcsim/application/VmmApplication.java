@@ -17,7 +17,8 @@ public class VmmApplication extends Application {
 	
 	public VmmApplication(Simulation simulation, Host host,
 			int cpu, int memory, int bandwidth, int storage) {
-		super(simulation);
+		//not registered with the Simulation, the Host initializes scheduling of its VMM only while it is ON
+		super(simulation, false);
 		
 		cpuOverhead = Integer.parseInt(Simulation.getProperty("vmmCpuOverhead"));
 		migOverhead = Integer.parseInt(Simulation.getProperty("vmMigrationCpuOverhead"));
@@ -23,6 +23,7 @@ public class StaticWorkload extends Workload {
 	
 	public void setWorkLevel(int workLevel) {
 		this.workLevel = workLevel;
+		workLevelChanged();
 	}
 
 	@Override
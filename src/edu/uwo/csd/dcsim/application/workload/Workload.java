@@ -1,5 +1,8 @@
 package edu.uwo.csd.dcsim.application.workload;
 
+import java.util.ArrayList;
+
+import edu.uwo.csd.dcsim.application.Application;
 import edu.uwo.csd.dcsim.core.*;
 import edu.uwo.csd.dcsim.core.events.DaemonRunEvent;
 
@@ -13,6 +16,7 @@ public abstract class Workload implements SimulationEventListener {
 	
 	protected Simulation simulation;
 	protected boolean enabled = true; //has this workload started producing work?
+	protected ArrayList<Application> applications = new ArrayList<Application>(); //applications receiving this workload
 
 	public Workload(Simulation simulation) {
 		
@@ -55,13 +59,50 @@ public abstract class Workload implements SimulationEventListener {
 	}
 	
 	public void setEnabled(boolean enabled) {
-		this.enabled = enabled;
+		if (this.enabled != enabled) {
+			this.enabled = enabled;
+			workLevelChanged();
+		}
+	}
+	
+	/**
+	 * Register an Application as receiving work from this Workload
+	 * @param application
+	 */
+	public void addApplication(Application application) {
+		applications.add(application);
+	}
+	
+	/**
+	 * Remove an Application from receiving work from this Workload
+	 * @param application
+	 */
+	public void removeApplication(Application application) {
+		applications.remove(application);
+	}
+	
+	public ArrayList<Application> getApplications() {
+		return applications;
+	}
+	
+	/**
+	 * Mark the Applications receiving this workload as changed, so that their resource demand is recalculated
+	 */
+	protected void workLevelChanged() {
+		for (Application application : applications) {
+			simulation.markApplicationDirty(application);
+		}
 	}
 	
 	@Override
 	public void handleEvent(Event e) {
 		if (e instanceof DaemonRunEvent) {
+			int lastWorkLevel = getWorkOutputLevel();
 			long nextEventTime = updateWorkLevel();
+			if (getWorkOutputLevel() != lastWorkLevel) {
+				workLevelChanged();
+			}
+			
 			if (nextEventTime > simulation.getSimulationTime()) {
 				simulation.sendEvent(new DaemonRunEvent(this), nextEventTime);
 			}
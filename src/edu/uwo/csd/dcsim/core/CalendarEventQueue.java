@@ -0,0 +1,357 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * EventQueue implemented as a calendar queue (R. Brown, "Calendar Queues: A Fast O(1) Priority Queue Implementation
+ * for the Simulation Event Set Problem", CACM 1988). Events are hashed by time into an array of buckets ("days"), each
+ * covering a fixed width of simulation time, which wraps around to form a "year". The number of buckets and the bucket
+ * width are recalculated as the queue grows and shrinks, giving amortised O(1) insertion and removal.
+ *
+ * Each bucket is kept sorted in ascending order (by EventComparator), in an array with a moving head, so that the next
+ * event in a bucket is always at its head. Simultaneous events are common in the simulation, and are sent in increasing
+ * order, so most events are appended at the tail of their bucket in O(1).
+ *
+ */
+public class CalendarEventQueue implements EventQueue {
+
+	private static final int MIN_BUCKETS = 2;
+	private static final int RESIZE_SAMPLE_SIZE = 25;
+
+	private final Comparator<Event> comparator = new EventComparator();
+
+	private Bucket[] buckets;
+	private int nBuckets;
+	private long width;				//width of a single bucket, in simulation time (ms)
+	private int size = 0;
+
+	private int lastBucket;			//bucket containing the current position of the calendar
+	private long bucketTop;			//upper bound (exclusive) on event times belonging to lastBucket in the current year
+	private long lastTime;			//time of the most recently located event. No event in the queue is earlier than this.
+
+	private boolean resizeEnabled = true;
+
+	public CalendarEventQueue() {
+		initialize(MIN_BUCKETS, 1, 0);
+	}
+
+	private void initialize(int nBuckets, long width, long startTime) {
+		this.nBuckets = nBuckets;
+		this.width = width;
+
+		buckets = new Bucket[nBuckets];
+		for (int i = 0; i < nBuckets; ++i) {
+			buckets[i] = new Bucket();
+		}
+
+		setCursor(startTime);
+	}
+
+	private void setCursor(long time) {
+		lastTime = time;
+		lastBucket = bucketIndex(time);
+		bucketTop = ((time / width) + 1) * width;
+	}
+
+	private int bucketIndex(long time) {
+		return (int)((time / width) % nBuckets);
+	}
+
+	private void insert(Event event) {
+		buckets[bucketIndex(event.getTime())].insert(event, comparator);
+	}
+
+	@Override
+	public void add(Event event) {
+		insert(event);
+		++size;
+
+		//if the event precedes the current calendar position, move the calendar back to it
+		if (event.getTime() < lastTime) {
+			setCursor(event.getTime());
+		}
+
+		if (size > 2 * nBuckets) {
+			resize(2 * nBuckets);
+		}
+	}
+
+	/**
+	 * Locate the bucket holding the next event, moving the calendar position forward to it
+	 * @return The index of the bucket, or -1 if the queue is empty
+	 */
+	private int locateNext() {
+		if (size == 0)
+			return -1;
+
+		//scan forward through the buckets for one year, looking for an event within the current day of each bucket
+		int i = lastBucket;
+		long top = bucketTop;
+		for (int n = 0; n < nBuckets; ++n) {
+			Bucket bucket = buckets[i];
+			if (!bucket.isEmpty()) {
+				Event e = bucket.first();
+				if (e.getTime() < top) {
+					lastBucket = i;
+					bucketTop = top;
+					lastTime = e.getTime();
+					return i;
+				}
+			}
+
+			i = (i + 1) % nBuckets;
+			top += width;
+		}
+
+		//no event found within a year of the current position, so search all buckets directly for the earliest event
+		int next = -1;
+		Event nextEvent = null;
+		for (i = 0; i < nBuckets; ++i) {
+			Bucket bucket = buckets[i];
+			if (!bucket.isEmpty()) {
+				Event e = bucket.first();
+				if (nextEvent == null || comparator.compare(e, nextEvent) < 0) {
+					next = i;
+					nextEvent = e;
+				}
+			}
+		}
+
+		setCursor(nextEvent.getTime());
+		return next;
+	}
+
+	@Override
+	public Event peek() {
+		int i = locateNext();
+		if (i == -1)
+			return null;
+
+		return buckets[i].first();
+	}
+
+	@Override
+	public Event poll() {
+		int i = locateNext();
+		if (i == -1)
+			return null;
+
+		Event e = buckets[i].poll();
+		--size;
+
+		if (size < nBuckets / 2 && nBuckets > MIN_BUCKETS) {
+			resize(nBuckets / 2);
+		}
+
+		return e;
+	}
+
+	@Override
+	public boolean remove(Event event) {
+		if (!buckets[bucketIndex(event.getTime())].remove(event, comparator))
+			return false;
+
+		--size;
+
+		if (size < nBuckets / 2 && nBuckets > MIN_BUCKETS) {
+			resize(nBuckets / 2);
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Rebuild the calendar with a new number of buckets, recalculating the bucket width from a sample of the
+	 * earliest events in the queue
+	 * @param newSize
+	 */
+	private void resize(int newSize) {
+		if (!resizeEnabled)
+			return;
+
+		long startTime = lastTime;
+
+		//remove a sample of the earliest events to estimate the average separation between events
+		resizeEnabled = false;
+		int nSamples = Math.min(size, RESIZE_SAMPLE_SIZE);
+		ArrayList<Event> events = new ArrayList<Event>(size);
+		for (int i = 0; i < nSamples; ++i) {
+			events.add(poll());
+		}
+		resizeEnabled = true;
+
+		long newWidth = calculateWidth(events);
+
+		for (Bucket bucket : buckets) {
+			bucket.addTo(events);
+		}
+
+		initialize(newSize, newWidth, startTime);
+		for (Event e : events) {
+			insert(e);
+		}
+		size = events.size();
+	}
+
+	/**
+	 * Calculate a bucket width from a sample of events, in order. Simultaneous events are common in the simulation,
+	 * so only separations between distinct event times are considered. Following Brown, separations more than twice the
+	 * average are discarded as outliers, and the width is set to three times the average of the remaining separations.
+	 * @param sample
+	 * @return
+	 */
+	private long calculateWidth(ArrayList<Event> sample) {
+		long total = 0;
+		int count = 0;
+		for (int i = 1; i < sample.size(); ++i) {
+			long separation = sample.get(i).getTime() - sample.get(i - 1).getTime();
+			if (separation > 0) {
+				total += separation;
+				++count;
+			}
+		}
+
+		//not enough distinct event times to estimate separation, keep the current width
+		if (count == 0)
+			return width;
+
+		double average = total / (double)count;
+
+		total = 0;
+		count = 0;
+		for (int i = 1; i < sample.size(); ++i) {
+			long separation = sample.get(i).getTime() - sample.get(i - 1).getTime();
+			if (separation > 0 && separation <= 2 * average) {
+				total += separation;
+				++count;
+			}
+		}
+
+		return Math.max(1, (3 * total) / count);
+	}
+
+	/**
+	 * The events of one bucket, in ascending order, held in events[head] to events[tail - 1]
+	 */
+	private static final class Bucket {
+
+		private Event[] events = new Event[4];
+		private int head = 0;
+		private int tail = 0;
+
+		boolean isEmpty() {
+			return head == tail;
+		}
+
+		Event first() {
+			return events[head];
+		}
+
+		Event poll() {
+			Event e = events[head];
+			events[head++] = null;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return e;
+		}
+
+		void insert(Event event, Comparator<Event> comparator) {
+			//events are most often inserted after all others in the bucket, or before all of them
+			if (head == tail || comparator.compare(event, events[tail - 1]) >= 0) {
+				ensureTailSpace();
+				events[tail++] = event;
+				return;
+			}
+			if (head > 0 && comparator.compare(event, events[head]) < 0) {
+				events[--head] = event;
+				return;
+			}
+
+			ensureTailSpace(); //before searching, as it may move the events
+			int index = search(event, comparator);
+			if (index < 0) index = -(index + 1);
+
+			System.arraycopy(events, index, events, index + 1, tail - index);
+			events[index] = event;
+			++tail;
+		}
+
+		boolean remove(Event event, Comparator<Event> comparator) {
+			int index = search(event, comparator);
+			if (index < 0 || events[index] != event)
+				return false;
+
+			if (index == head) {
+				poll();
+			} else {
+				System.arraycopy(events, index + 1, events, index, tail - index - 1);
+				events[--tail] = null;
+			}
+			return true;
+		}
+
+		void addTo(ArrayList<Event> list) {
+			for (int i = head; i < tail; ++i) {
+				list.add(events[i]);
+			}
+		}
+
+		/**
+		 * Binary search for an event, as Arrays.binarySearch
+		 * @return The index of the event, or (-(insertion point) - 1) if it is not present
+		 */
+		private int search(Event event, Comparator<Event> comparator) {
+			int low = head;
+			int high = tail - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int c = comparator.compare(events[mid], event);
+				if (c < 0) {
+					low = mid + 1;
+				} else if (c > 0) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		/**
+		 * Make room for one more event at the tail, by moving the events to the start of the array if at least half of it
+		 * is free, or otherwise growing it
+		 */
+		private void ensureTailSpace() {
+			if (tail < events.length)
+				return;
+
+			int n = tail - head;
+			if (head >= events.length / 2) {
+				System.arraycopy(events, head, events, 0, n);
+				Arrays.fill(events, n, tail, null);
+			} else {
+				Event[] grown = new Event[events.length * 2];
+				System.arraycopy(events, head, grown, 0, n);
+				events = grown;
+			}
+			head = 0;
+			tail = n;
+		}
+
+	}
+
+}
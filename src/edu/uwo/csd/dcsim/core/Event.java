@@ -9,6 +9,7 @@ public abstract class Event {
 	private long time;
 	private SimulationEventListener target;
 	private long sendOrder;
+	private int queueIndex = -1; //position of this event in the HeapEventQueue, or -1 if not queued
 	private ArrayList<EventCallbackListener> callbackListeners = new ArrayList<EventCallbackListener>();
 	
 	private int waitOnEvent = 0; //0 if we are waiting for another event to run, > 0 depending on number of events to wait for
@@ -108,6 +109,14 @@ public abstract class Event {
 		return sendOrder;
 	}
 	
+	final void setQueueIndex(int queueIndex) {
+		this.queueIndex = queueIndex;
+	}
+	
+	final int getQueueIndex() {
+		return queueIndex;
+	}
+	
 	public final Simulation getSimulation() {
 		return simulation;
 	}
@@ -0,0 +1,45 @@
+package edu.uwo.csd.dcsim.core;
+
+/**
+ * The future event list of a Simulation. Implementations must return events in the order defined by
+ * EventComparator (by time, then by send order), so that the choice of implementation never changes
+ * the outcome of a simulation.
+ * 
+ * The implementation used by a Simulation is selected with the 'eventQueue' simulation property.
+ * 
+ * @see HeapEventQueue
+ * @see CalendarEventQueue
+ *
+ */
+public interface EventQueue {
+
+	/**
+	 * Add an event to the queue. The time and send order of the event must already be set.
+	 * @param event
+	 */
+	public void add(Event event);
+	
+	/**
+	 * Get, but do not remove, the next event in the queue
+	 * @return The next event, or null if the queue is empty
+	 */
+	public Event peek();
+	
+	/**
+	 * Get and remove the next event in the queue
+	 * @return The next event, or null if the queue is empty
+	 */
+	public Event poll();
+	
+	/**
+	 * Remove an event from the queue, if present
+	 * @param event
+	 * @return True if the event was present in the queue and has been removed
+	 */
+	public boolean remove(Event event);
+	
+	public boolean isEmpty();
+	
+	public int size();
+	
+}
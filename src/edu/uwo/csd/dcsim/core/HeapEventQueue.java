@@ -0,0 +1,132 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Default EventQueue, backed by a binary heap. Insertion and removal of the next event are O(log n).
+ * 
+ * Each queued Event records its current position in the heap, so that cancelling an arbitrary event (e.g. stopping a 
+ * RepeatingEvent) is also O(log n), rather than requiring a linear search of the queue.
+ * 
+ */
+public class HeapEventQueue implements EventQueue {
+
+	private static final int INITIAL_CAPACITY = 1000;
+	
+	private final Comparator<Event> comparator = new EventComparator();
+	private Event[] heap = new Event[INITIAL_CAPACITY];
+	private int size = 0;
+	
+	@Override
+	public void add(Event event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, heap.length * 2);
+		}
+		
+		heap[size] = event;
+		event.setQueueIndex(size);
+		siftUp(size);
+		++size;
+	}
+
+	@Override
+	public Event peek() {
+		if (size == 0)
+			return null;
+		
+		return heap[0];
+	}
+
+	@Override
+	public Event poll() {
+		if (size == 0)
+			return null;
+		
+		return removeAt(0);
+	}
+
+	@Override
+	public boolean remove(Event event) {
+		int index = event.getQueueIndex();
+		
+		//the index is only valid if the event is actually in this queue at that position
+		if (index < 0 || index >= size || heap[index] != event)
+			return false;
+		
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	private Event removeAt(int index) {
+		Event removed = heap[index];
+		
+		--size;
+		Event last = heap[size];
+		heap[size] = null;
+		
+		if (index != size) {
+			//move the last event into the vacated position, and restore the heap order around it
+			heap[index] = last;
+			last.setQueueIndex(index);
+			siftDown(index);
+			if (heap[index] == last) {
+				siftUp(index);
+			}
+		}
+		
+		removed.setQueueIndex(-1);
+		return removed;
+	}
+	
+	private void siftUp(int index) {
+		Event event = heap[index];
+		
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (comparator.compare(event, heap[parent]) >= 0)
+				break;
+			
+			heap[index] = heap[parent];
+			heap[index].setQueueIndex(index);
+			index = parent;
+		}
+		
+		heap[index] = event;
+		event.setQueueIndex(index);
+	}
+	
+	private void siftDown(int index) {
+		Event event = heap[index];
+		int half = size >>> 1;
+		
+		while (index < half) {
+			int child = (index << 1) + 1;
+			int right = child + 1;
+			if (right < size && comparator.compare(heap[right], heap[child]) < 0) {
+				child = right;
+			}
+			
+			if (comparator.compare(event, heap[child]) <= 0)
+				break;
+			
+			heap[index] = heap[child];
+			heap[index].setQueueIndex(index);
+			index = child;
+		}
+		
+		heap[index] = event;
+		event.setQueueIndex(index);
+	}
+
+}
@@ -0,0 +1,169 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.*;
+
+import edu.uwo.csd.dcsim.host.Host;
+import edu.uwo.csd.dcsim.host.Host.HostState;
+
+/**
+ * Indexes a fixed list of Hosts by their current HostState, so that loops over the Hosts in a given state visit only
+ * those Hosts instead of filtering the whole list. Hosts are always returned in the order of the list. The index is
+ * kept up to date by Host.setState.
+ *
+ * The index also records the Hosts that have left the ON state since they were last scheduled, as they must have their
+ * scheduled resources reset once more, and the memory in use on OFF Hosts. Events sent to a Host that is not ON are
+ * queued until it powers on, so the resources allocated on an OFF Host do not change. For the same reason, the state
+ * of an OFF Host need only be logged once after it turns OFF, and the index records the OFF Hosts not yet logged.
+ *
+ */
+public class HostStateIndex {
+
+	private final ArrayList<Host> hosts;
+	private final Map<Host, Integer> positions = new IdentityHashMap<Host, Integer>();
+	private final BitSet[] hostsByState = new BitSet[HostState.values().length];
+	private final int[] hostCounts = new int[HostState.values().length];
+	private final BitSet leftOn = new BitSet();
+	private final BitSet offNotLogged = new BitSet();
+	private final int[] offMemoryInUse;
+	private long totalOffMemoryInUse = 0;
+
+	public HostStateIndex(List<Host> hosts) {
+		this.hosts = new ArrayList<Host>(hosts);
+		offMemoryInUse = new int[hosts.size()];
+
+		for (int i = 0; i < hostsByState.length; ++i) {
+			hostsByState[i] = new BitSet(hosts.size());
+		}
+
+		for (int i = 0; i < this.hosts.size(); ++i) {
+			Host host = this.hosts.get(i);
+			positions.put(host, i);
+			hostsByState[host.getState().ordinal()].set(i);
+			++hostCounts[host.getState().ordinal()];
+			if (host.getState() == HostState.OFF) {
+				offNotLogged.set(i);
+				offMemoryInUse[i] = host.getResourceManager().getMemoryInUse();
+				totalOffMemoryInUse += offMemoryInUse[i];
+			}
+		}
+	}
+
+	/**
+	 * Move a Host to the index of its new state
+	 * @param host
+	 * @param oldState The state of the Host before the transition
+	 */
+	public void update(Host host, HostState oldState) {
+		Integer position = positions.get(host);
+		if (position == null || oldState == host.getState())
+			return;
+
+		hostsByState[oldState.ordinal()].clear(position);
+		--hostCounts[oldState.ordinal()];
+		hostsByState[host.getState().ordinal()].set(position);
+		++hostCounts[host.getState().ordinal()];
+
+		if (oldState == HostState.ON) {
+			leftOn.set(position);
+		}
+		
+		if (oldState == HostState.OFF) {
+			offNotLogged.clear(position);
+			totalOffMemoryInUse -= offMemoryInUse[position];
+			offMemoryInUse[position] = 0;
+		} else if (host.getState() == HostState.OFF) {
+			offNotLogged.set(position);
+			offMemoryInUse[position] = host.getResourceManager().getMemoryInUse();
+			totalOffMemoryInUse += offMemoryInUse[position];
+		}
+	}
+
+	/**
+	 * Get the Hosts currently in a state
+	 * @param state
+	 * @return
+	 */
+	public ArrayList<Host> getHosts(HostState state) {
+		return getHosts(hostsByState[state.ordinal()], hostCounts[state.ordinal()]);
+	}
+
+	/**
+	 * Get the Hosts currently in any state other than the given state
+	 * @param state
+	 * @return
+	 */
+	public ArrayList<Host> getHostsExcept(HostState state) {
+		BitSet positions = new BitSet(hosts.size());
+		positions.set(0, hosts.size());
+		positions.andNot(hostsByState[state.ordinal()]);
+		return getHosts(positions, hosts.size() - hostCounts[state.ordinal()]);
+	}
+
+	public int getHostCount(HostState state) {
+		return hostCounts[state.ordinal()];
+	}
+	
+	/**
+	 * Get the total memory in use on all OFF Hosts
+	 * @return
+	 */
+	public long getOffMemoryInUse() {
+		return totalOffMemoryInUse;
+	}
+	
+	/**
+	 * Get the total number of Hosts in the index
+	 * @return
+	 */
+	public int size() {
+		return hosts.size();
+	}
+
+	/**
+	 * Get the Hosts that are ON or have left the ON state since this method was last called. These are all of the
+	 * Hosts that may have resources scheduled to them.
+	 * @return
+	 */
+	public ArrayList<Host> getHostsToSchedule() {
+		BitSet positions = (BitSet)leftOn.clone();
+		positions.or(hostsByState[HostState.ON.ordinal()]);
+		leftOn.clear();
+
+		return getHosts(positions, positions.cardinality());
+	}
+
+	/**
+	 * Get the Hosts of a contiguous range of the index whose state must be logged: those that are not OFF, and those
+	 * that have turned OFF since the range was last logged. The OFF Hosts returned are marked as logged.
+	 * @param range The Hosts of the range, in the order of the index
+	 * @return The Hosts to log, or null if the range is not a contiguous range of the index
+	 */
+	public ArrayList<Host> getHostsToLog(List<Host> range) {
+		if (range.isEmpty())
+			return new ArrayList<Host>(0);
+		
+		Integer from = positions.get(range.get(0));
+		if (from == null || from + range.size() > hosts.size() || hosts.get(from + range.size() - 1) != range.get(range.size() - 1))
+			return null;
+		int to = from + range.size();
+		
+		BitSet positions = new BitSet(to);
+		positions.set(from, to);
+		positions.andNot(hostsByState[HostState.OFF.ordinal()]);
+		for (int i = offNotLogged.nextSetBit(from); i >= 0 && i < to; i = offNotLogged.nextSetBit(i + 1)) {
+			positions.set(i);
+		}
+		offNotLogged.clear(from, to);
+		
+		return getHosts(positions, positions.cardinality());
+	}
+
+	private ArrayList<Host> getHosts(BitSet positions, int count) {
+		ArrayList<Host> result = new ArrayList<Host>(count);
+		for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+			result.add(hosts.get(i));
+		}
+		return result;
+	}
+
+}
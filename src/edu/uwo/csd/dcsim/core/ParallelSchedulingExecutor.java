@@ -0,0 +1,140 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.uwo.csd.dcsim.application.Application;
+import edu.uwo.csd.dcsim.host.Host;
+
+/**
+ * Runs the per-host and per-application steps of a resource scheduling round in parallel on a ForkJoinPool. The hosts
+ * or applications are split into chunks of at most chunkSize, and each chunk is processed sequentially by one worker.
+ *
+ * Scheduling a Host only modifies the VMs allocated to it, and updating the demand of an Application only modifies its
+ * own task instances, so the work within a round is independent. Results are gathered by index and combined in order
+ * once all chunks have completed, so they are identical to those of a sequential round. Independent SchedulingComponents
+ * can also be iterated to convergence in parallel.
+ *
+ */
+public class ParallelSchedulingExecutor {
+
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+
+	public ParallelSchedulingExecutor(int nThreads, int chunkSize) {
+		if (nThreads < 1)
+			throw new IllegalArgumentException("Parallel scheduling requires at least one thread");
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Parallel scheduling chunk size must be at least 1");
+
+		pool = new ForkJoinPool(nThreads);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Schedule resources on each of the given hosts. Hosts must be ON.
+	 * @param hosts
+	 */
+	public void scheduleResources(final List<Host> hosts) {
+		pool.invoke(new ChunkAction(new IndexedWork() {
+
+			@Override
+			public void execute(int index) {
+				hosts.get(index).getResourceScheduler().scheduleResources();
+			}
+
+		}, 0, hosts.size()));
+	}
+
+	/**
+	 * Update the demand of each of the given applications. The applications must not share state that depends on the
+	 * order of their updates, such as the MVA solution cache, which Simulation does not allow with parallel demand updates.
+	 * @param applications
+	 * @return True if any call to updateDemand resulted in a change
+	 */
+	public boolean updateDemand(final List<Application> applications) {
+		final boolean[] updated = new boolean[applications.size()];
+
+		pool.invoke(new ChunkAction(new IndexedWork() {
+
+			@Override
+			public void execute(int index) {
+				updated[index] = applications.get(index).updateDemand();
+			}
+
+		}, 0, applications.size()));
+
+		boolean anyUpdated = false;
+		for (boolean appUpdate : updated) {
+			anyUpdated = anyUpdated || appUpdate;
+		}
+		return anyUpdated;
+	}
+
+	/**
+	 * Iterate each of the given components to convergence
+	 * @param components
+	 * @return The largest number of scheduling rounds needed by a component
+	 */
+	public int schedule(final List<SchedulingComponent> components) {
+		final int[] rounds = new int[components.size()];
+
+		pool.invoke(new ChunkAction(new IndexedWork() {
+
+			@Override
+			public void execute(int index) {
+				rounds[index] = components.get(index).schedule();
+			}
+
+		}, 0, components.size()));
+
+		int maxRounds = 0;
+		for (int componentRounds : rounds) {
+			maxRounds = Math.max(maxRounds, componentRounds);
+		}
+		return maxRounds;
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private interface IndexedWork {
+
+		public void execute(int index);
+
+	}
+
+	/**
+	 * Executes work on the range [start, end), splitting it in half until it fits within a single chunk
+	 */
+	private class ChunkAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IndexedWork work;
+		private final int start;
+		private final int end;
+
+		public ChunkAction(IndexedWork work, int start, int end) {
+			this.work = work;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= chunkSize) {
+				for (int i = start; i < end; ++i) {
+					work.execute(i);
+				}
+			} else {
+				int mid = (start + end) >>> 1;
+				invokeAll(new ChunkAction(work, start, mid), new ChunkAction(work, mid, end));
+			}
+		}
+
+	}
+
+}
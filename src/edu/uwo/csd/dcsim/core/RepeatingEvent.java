@@ -4,6 +4,7 @@ public abstract class RepeatingEvent extends Event implements EventCallbackListe
 
 	private long interval;
 	private boolean running;
+	RepeatingEventWheel.Entry wheelEntry = null; //entry of this event in the RepeatingEventWheel from when it was last added, if in use
 	
 	public RepeatingEvent(Simulation simulation, SimulationEventListener target, long interval) {
 		super(target);
@@ -0,0 +1,276 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Holds RepeatingEvents outside of the main EventQueue, grouped by their repeat interval. Only a single proxy event,
+ * keyed to the next RepeatingEvent held in the wheel, sits in the main EventQueue. When the proxy is executed, the wheel
+ * fires all RepeatingEvents due at the current time as a batch.
+ *
+ * A RepeatingEvent is re-sent with a later time and a larger send order every time it executes, so all of the events
+ * sharing an interval are re-sent in the order they fire. Each interval is therefore held in a FIFO ring, and re-sending
+ * an event is O(1) instead of an O(log n) heap insertion. An event started earlier than the events already in its ring is
+ * held in a heap beside the ring. The number of distinct intervals in a simulation is small, so the next event is found
+ * by comparing the head of each ring.
+ *
+ * Events are fired in exactly the order defined by EventComparator, interleaved with the events in the main EventQueue,
+ * so using the wheel does not change the outcome of a simulation.
+ *
+ * Each time a RepeatingEvent is added, it is held in its ring by an entry. Stopping the event cancels its entry, which is
+ * discarded lazily when it reaches the head of the ring, so a stopped event that is restarted gets a new entry without
+ * the ring being searched for the cancelled one. The entry of an event that has fired is reused when it is re-sent.
+ *
+ */
+public class RepeatingEventWheel implements SimulationEventListener {
+
+	//states of an entry with respect to the wheel
+	static final int NOT_QUEUED = 0;
+	static final int QUEUED = 1;
+	static final int CANCELLED = 2;
+
+	private final EventQueue eventQueue;
+	private final Comparator<Event> comparator = new EventComparator();
+	private final Comparator<Entry> entryComparator = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry e1, Entry e2) {
+			//as EventComparator, on the time and send order the events had when added
+			if (e1.time == e2.time)
+				return Long.compare(e1.sendOrder, e2.sendOrder);
+			return Long.compare(e1.time, e2.time);
+		}
+	};
+	private final ArrayList<IntervalRing> rings = new ArrayList<IntervalRing>();
+	private final WheelTickEvent tickEvent = new WheelTickEvent(this);
+
+	private boolean tickQueued = false;
+	private boolean firing = false;
+	private int size = 0;
+
+	public RepeatingEventWheel(EventQueue eventQueue) {
+		this.eventQueue = eventQueue;
+	}
+
+	/**
+	 * Add a RepeatingEvent to the wheel. The time and send order of the event must already be set.
+	 * @param event
+	 */
+	public void add(RepeatingEvent event) {
+		//reuse the entry of the event unless it is still in a ring, as the cancelled entry of a stopped event may be
+		Entry entry = event.wheelEntry;
+		if (entry == null || entry.state != NOT_QUEUED) {
+			entry = new Entry(event);
+			event.wheelEntry = entry;
+		}
+
+		IntervalRing ring = null;
+		for (IntervalRing r : rings) {
+			if (r.interval == event.getInterval()) {
+				ring = r;
+				break;
+			}
+		}
+		if (ring == null) {
+			ring = new IntervalRing(event.getInterval());
+			rings.add(ring);
+		}
+
+		entry.time = event.getTime();
+		entry.sendOrder = event.getSendOrder();
+		entry.state = QUEUED;
+		ring.add(entry);
+		++size;
+
+		//move the tick event forward if this is now the next repeating event
+		if (!firing && (!tickQueued || comparator.compare(event, tickEvent) < 0)) {
+			scheduleTick();
+		}
+	}
+
+	/**
+	 * Remove a RepeatingEvent from the wheel, if present
+	 * @param event
+	 * @return True if the event was present and has been removed
+	 */
+	public boolean remove(RepeatingEvent event) {
+		Entry entry = event.wheelEntry;
+		if (entry == null || entry.state != QUEUED)
+			return false;
+
+		entry.state = CANCELLED;
+		--size;
+
+		//if the tick event was keyed to this event, move it to the next repeating event
+		if (!firing && tickQueued && tickEvent.getTime() == event.getTime() && tickEvent.getSendOrder() == event.getSendOrder()) {
+			scheduleTick();
+		}
+
+		return true;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the next RepeatingEvent in the wheel, discarding cancelled events at the head of each ring
+	 * @return
+	 */
+	private RepeatingEvent peek() {
+		IntervalRing next = nextRing();
+		if (next == null)
+			return null;
+
+		return next.peekLive().event;
+	}
+
+	private IntervalRing nextRing() {
+		IntervalRing next = null;
+		for (IntervalRing ring : rings) {
+			Entry head = ring.peekLive();
+			if (head != null && (next == null || entryComparator.compare(head, next.peekLive()) < 0)) {
+				next = ring;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Key the tick event to the next RepeatingEvent in the wheel and place it in the main EventQueue
+	 */
+	private void scheduleTick() {
+		if (tickQueued) {
+			eventQueue.remove(tickEvent);
+			tickQueued = false;
+		}
+
+		RepeatingEvent next = peek();
+		if (next != null) {
+			tickEvent.setTime(next.getTime());
+			tickEvent.setSendOrder(next.getSendOrder());
+			eventQueue.add(tickEvent);
+			tickQueued = true;
+		}
+	}
+
+	@Override
+	public void handleEvent(Event e) {
+		long time = e.getTime();
+		tickQueued = false;
+		firing = true;
+
+		//fire repeating events due now, for as long as they precede the next event in the main queue
+		IntervalRing ring;
+		while ((ring = nextRing()) != null) {
+			RepeatingEvent next = ring.peekLive().event;
+			if (next.getTime() != time)
+				break;
+
+			Event other = eventQueue.peek();
+			if (other != null && comparator.compare(other, next) < 0)
+				break;
+
+			ring.poll().state = NOT_QUEUED;
+			--size;
+
+			next.getSimulation().executeEvent(next);
+		}
+
+		firing = false;
+		scheduleTick();
+	}
+
+	/**
+	 * The entries of the RepeatingEvents in the wheel with a given interval. Re-sent events are appended to a FIFO in
+	 * order, and events started earlier than the last event in the FIFO are held in a heap beside it.
+	 */
+	private class IntervalRing {
+
+		final long interval;
+		final ArrayDeque<Entry> entries = new ArrayDeque<Entry>();
+		final PriorityQueue<Entry> started = new PriorityQueue<Entry>(11, entryComparator);
+
+		public IntervalRing(long interval) {
+			this.interval = interval;
+		}
+
+		public void add(Entry entry) {
+			if (entries.isEmpty() || entryComparator.compare(entries.peekLast(), entry) < 0) {
+				//the usual case, a re-sent event is always later than all other events with the same interval
+				entries.addLast(entry);
+			} else {
+				//an event started out of order
+				started.add(entry);
+			}
+		}
+
+		/**
+		 * Get the first entry in the ring that has not been cancelled, discarding cancelled entries before it
+		 * @return
+		 */
+		public Entry peekLive() {
+			while (!entries.isEmpty() && entries.peekFirst().state == CANCELLED) {
+				entries.pollFirst().state = NOT_QUEUED;
+			}
+			while (!started.isEmpty() && started.peek().state == CANCELLED) {
+				started.poll().state = NOT_QUEUED;
+			}
+
+			Entry head = entries.peekFirst();
+			if (head == null || (!started.isEmpty() && entryComparator.compare(started.peek(), head) < 0)) {
+				head = started.peek();
+			}
+			return head;
+		}
+
+		/**
+		 * Remove the first entry in the ring, as returned by peekLive()
+		 * @return
+		 */
+		public Entry poll() {
+			Entry head = peekLive();
+			if (head != null && head == started.peek()) {
+				started.poll();
+			} else {
+				entries.pollFirst();
+			}
+			return head;
+		}
+
+	}
+
+	/**
+	 * The position of a RepeatingEvent in an IntervalRing. The time and send order of the event are kept, as those of the
+	 * event change if it is restarted while a cancelled entry for it remains in a ring.
+	 */
+	static final class Entry {
+
+		final RepeatingEvent event;
+		long time;
+		long sendOrder;
+		int state = NOT_QUEUED;
+
+		Entry(RepeatingEvent event) {
+			this.event = event;
+		}
+
+	}
+
+	/**
+	 * Proxy for the next RepeatingEvent in the wheel, held in the main EventQueue
+	 */
+	private static class WheelTickEvent extends Event {
+
+		public WheelTickEvent(RepeatingEventWheel wheel) {
+			super(wheel);
+		}
+
+	}
+
+}
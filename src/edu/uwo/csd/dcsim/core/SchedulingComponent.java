@@ -0,0 +1,172 @@
+package edu.uwo.csd.dcsim.core;
+
+import java.util.*;
+
+import edu.uwo.csd.dcsim.application.Application;
+import edu.uwo.csd.dcsim.application.Task;
+import edu.uwo.csd.dcsim.application.TaskInstance;
+import edu.uwo.csd.dcsim.host.Host;
+import edu.uwo.csd.dcsim.vm.Vm;
+import edu.uwo.csd.dcsim.vm.VmAllocation;
+
+/**
+ * A connected component of the graph linking each Application to the Hosts its VMs are allocated on. The resources
+ * scheduled to the Applications in a component depend only on the Hosts in the component and vice versa, so each
+ * component can be iterated to convergence independently of the others.
+ *
+ */
+public class SchedulingComponent {
+
+	private final ArrayList<Host> hosts = new ArrayList<Host>();
+	private final ArrayList<Application> applications = new ArrayList<Application>();
+
+	public ArrayList<Host> getHosts() {
+		return hosts;
+	}
+
+	public ArrayList<Application> getApplications() {
+		return applications;
+	}
+
+	/**
+	 * Run scheduling rounds on the component until no call to updateDemand results in a change. Host scheduling must
+	 * already be reset and Applications initialized.
+	 * @return The number of calls made to updateDemand on each Application
+	 */
+	public int schedule() {
+		//update application demands (includes solving MVA and updating cpu demand)
+		for (Application application : applications) {
+			application.updateDemand();
+		}
+
+		int rounds = 1;
+		boolean done = false;
+		while (!done) {
+			done = true;
+			++rounds;
+			for (Host host : hosts) {
+				if (host.getState() == Host.HostState.ON) {
+					host.getResourceScheduler().scheduleResources();
+				}
+			}
+			for (Application application : applications) {
+				boolean appUpdate = application.updateDemand();
+				done = done && !appUpdate; //stop when no calls to updateDemand result in changes
+			}
+		}
+		
+		return rounds;
+	}
+
+	/**
+	 * Split a set of Hosts and Applications into connected components. Links to Hosts or Applications outside of the
+	 * given collections are ignored.
+	 * @param hosts
+	 * @param applications
+	 * @return
+	 */
+	public static ArrayList<SchedulingComponent> partition(Collection<Host> hosts, Collection<Application> applications) {
+		//identity maps, as Application hash codes are not stable while they are being constructed
+		Map<Host, SchedulingComponent> hostComponents = new IdentityHashMap<Host, SchedulingComponent>();
+		Map<Application, SchedulingComponent> applicationComponents = new IdentityHashMap<Application, SchedulingComponent>();
+		for (Host host : hosts) {
+			hostComponents.put(host, null);
+		}
+		for (Application application : applications) {
+			applicationComponents.put(application, null);
+		}
+
+		ArrayList<SchedulingComponent> components = new ArrayList<SchedulingComponent>();
+		ArrayDeque<Host> hostQueue = new ArrayDeque<Host>();
+		ArrayDeque<Application> applicationQueue = new ArrayDeque<Application>();
+
+		for (Host host : hosts) {
+			if (hostComponents.get(host) == null) {
+				SchedulingComponent component = new SchedulingComponent();
+				components.add(component);
+
+				hostComponents.put(host, component);
+				component.hosts.add(host);
+				hostQueue.add(host);
+				expand(component, hostQueue, applicationQueue, hostComponents, applicationComponents);
+			}
+		}
+		for (Application application : applications) {
+			if (applicationComponents.get(application) == null) {
+				SchedulingComponent component = new SchedulingComponent();
+				components.add(component);
+
+				applicationComponents.put(application, component);
+				component.applications.add(application);
+				applicationQueue.add(application);
+				expand(component, hostQueue, applicationQueue, hostComponents, applicationComponents);
+			}
+		}
+
+		return components;
+	}
+
+	private static void expand(SchedulingComponent component, ArrayDeque<Host> hostQueue, ArrayDeque<Application> applicationQueue,
+			Map<Host, SchedulingComponent> hostComponents, Map<Application, SchedulingComponent> applicationComponents) {
+
+		while (!hostQueue.isEmpty() || !applicationQueue.isEmpty()) {
+			while (!hostQueue.isEmpty()) {
+				for (Application application : getApplications(hostQueue.poll())) {
+					if (applicationComponents.containsKey(application) && applicationComponents.get(application) == null) {
+						applicationComponents.put(application, component);
+						component.applications.add(application);
+						applicationQueue.add(application);
+					}
+				}
+			}
+			while (!applicationQueue.isEmpty()) {
+				for (Host host : getHosts(applicationQueue.poll())) {
+					if (hostComponents.containsKey(host) && hostComponents.get(host) == null) {
+						hostComponents.put(host, component);
+						component.hosts.add(host);
+						hostQueue.add(host);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the Applications with a VM running on a Host. The Host VMM application is not included, as it is scheduled
+	 * with the Host.
+	 * @param host
+	 * @return
+	 */
+	public static ArrayList<Application> getApplications(Host host) {
+		ArrayList<Application> applications = new ArrayList<Application>();
+
+		for (VmAllocation vmAlloc : host.getVMAllocations()) {
+			if (vmAlloc.getVm() != null) { //null if this is an allocation for a migrating in VM
+				applications.add(vmAlloc.getVm().getTaskInstance().getTask().getApplication());
+			}
+		}
+
+		return applications;
+	}
+
+	/**
+	 * Get the Hosts running the VMs of an Application. A migrating VM is on its source Host until the migration completes.
+	 * @param application
+	 * @return
+	 */
+	public static ArrayList<Host> getHosts(Application application) {
+		ArrayList<Host> hosts = new ArrayList<Host>();
+
+		for (Task task : application.getTasks()) {
+			for (TaskInstance instance : task.getInstances()) {
+				Vm vm = instance.getVM();
+				if (vm != null && vm.getVMAllocation() != null) {
+					hosts.add(vm.getVMAllocation().getHost());
+				}
+			}
+		}
+
+		return hosts;
+	}
+
+}
@@ -7,6 +7,8 @@ import org.apache.log4j.PatternLayout;
 
 import edu.uwo.csd.dcsim.DataCentre;
 import edu.uwo.csd.dcsim.application.Application;
+import edu.uwo.csd.dcsim.application.MaxWorkloadCache;
+import edu.uwo.csd.dcsim.application.MvaSolutionCache;
 import edu.uwo.csd.dcsim.common.SimTime;
 //import edu.uwo.csd.dcsim.common.SimTime;
 import edu.uwo.csd.dcsim.common.Utility;
@@ -17,6 +19,7 @@ import edu.uwo.csd.dcsim.logging.*;
 
 import java.util.*;
 import java.io.*;
+import java.text.SimpleDateFormat;
 
 /**
  * Simulation is a simulation of a data centre, which consists of a collection of DataCentres containing Hosts, which
@@ -43,6 +46,8 @@ public class Simulation implements SimulationEventListener {
 	public static final String DEFAULT_TRACE_CONVERSION_PATTERN = "%s,%m%n";
 	public static final String DEFAULT_TRACE_DATE_FORMAT = "yyyy_MM_dd'-'HH_mm_ss";
 	public static final String DEFAULT_TRACE_FILE_NAME = "%n-%d.trace";
+	public static final String DEFAULT_BINARY_TRACE_FILE_EXTENSION = ".trace.bin";
+	public static final int DEFAULT_TRACE_BLOCK_SIZE = 65536;
 	
 	//directory constants
 	private static String homeDirectory = null;
@@ -52,17 +57,56 @@ public class Simulation implements SimulationEventListener {
 	//the name of property in the simulation properties file that defines the precision with which to report metrics
 	private static String METRIC_PRECISION_PROP = "metricPrecision";
 	
+	//the name of the property in the simulation properties file that selects the EventQueue implementation (heap, calendar)
+	private static String EVENT_QUEUE_PROP = "eventQueue";
+	
+	//the name of the property in the simulation properties file that enables holding RepeatingEvents in a RepeatingEventWheel
+	private static String REPEATING_EVENT_WHEEL_PROP = "enableRepeatingEventWheel";
+	
+	//the name of the property in the simulation properties file that enables incremental (dirty-tracking) resource scheduling
+	private static String INCREMENTAL_SCHEDULING_PROP = "enableIncrementalScheduling";
+	
+	//the name of the property in the simulation properties file that enables iterating each connected component of hosts and applications to convergence independently
+	private static String COMPONENT_SCHEDULING_PROP = "enableComponentScheduling";
+	
+	//the names of the properties in the simulation properties file that configure parallel execution of scheduling rounds
+	private static String PARALLEL_HOST_SCHEDULING_PROP = "enableParallelHostScheduling";
+	private static String PARALLEL_DEMAND_UPDATE_PROP = "enableParallelDemandUpdate";
+	private static String PARALLEL_SCHEDULING_THREADS_PROP = "parallelSchedulingThreads";
+	private static String PARALLEL_SCHEDULING_CHUNK_SIZE_PROP = "parallelSchedulingChunkSize";
+	private static int DEFAULT_PARALLEL_SCHEDULING_CHUNK_SIZE = 32;
+	
+	//the names of the properties in the simulation properties file that select the trace format (text, binary) and the number of records per binary trace block
+	private static String TRACE_FORMAT_PROP = "traceFormat";
+	private static String TRACE_BLOCK_SIZE_PROP = "traceBlockSize";
+	
+	//the names of the properties in the simulation properties file that configure writing the log and trace files from background threads
+	private static String ASYNC_LOGGING_PROP = "enableAsyncLogging";
+	private static String ASYNC_LOGGING_BUFFER_SIZE_PROP = "asyncLoggingBufferSize";
+	private static String ASYNC_LOGGING_OVERFLOW_PROP = "asyncLoggingOverflow";
+	private static int DEFAULT_ASYNC_LOGGING_BUFFER_SIZE = 8192;
+	
+	//the names of the properties in the simulation properties file that configure the cache of MVA solutions shared by applications
+	private static String MVA_CACHE_SIZE_PROP = "mvaCacheSize";
+	private static String MVA_CACHE_PRECISION_PROP = "mvaCachePrecision";
+	
+	//the name of the property in the simulation properties file that sets the number of application maximum workloads cached
+	private static String MAX_WORKLOAD_CACHE_SIZE_PROP = "maxWorkloadCacheSize";
+	private static int DEFAULT_MAX_WORKLOAD_CACHE_SIZE = 1024;
+	
 	private static ConsoleAppender consoleAppender;
 	private static LogPerRunFileAppender mainFileAppender;
 	protected final Logger logger; //logger
 	protected final Logger traceLogger; //logger for trace file
+	protected final TraceWriter traceWriter; //writes trace records, to the trace logger or a binary trace file
 	protected boolean enableTrace;
 	protected boolean enableProgressOutput = false;
 	
 	private static Properties properties; //simulation properties
 	
 	private String name; 						//name of the simulation
-	private PriorityQueue<Event> eventQueue;	//contains all future events, in order
+	private EventQueue eventQueue;				//contains all future events, in order
+	private RepeatingEventWheel repeatingEventWheel = null;	//holds future RepeatingEvents, if enabled
 	private long simulationTime; 				//current time, in milliseconds
 	private long lastUpdate; 					//in milliseconds
 	private long duration;						//duration of the entire simulation, at which point it terminates
@@ -83,6 +127,30 @@ public class Simulation implements SimulationEventListener {
 	//Datacentre specific variables
 	private ArrayList<DataCentre> datacentres = new ArrayList<DataCentre>(); //collection of datacentres within the simulation
 	private Set<Application> applications = new HashSet<Application>();
+	private HostStateIndex hostStateIndex = null; //index of the hosts in all datacentres by state, created when the simulation is run
+	
+	//incremental scheduling. Hosts and Applications affected by a change since the last time step are marked dirty.
+	private boolean incrementalScheduling = false;
+	private boolean schedulingInitialized = false;
+	private Set<Host> dirtyHosts = new LinkedHashSet<Host>();
+	private Set<Application> dirtyApplications = new LinkedHashSet<Application>();
+	
+	private boolean componentScheduling = false;
+	
+	//parallel scheduling. Null if neither host scheduling nor demand updates are run in parallel.
+	private boolean parallelHostScheduling = false;
+	private boolean parallelDemandUpdate = false;
+	private ParallelSchedulingExecutor parallelExecutor = null;
+	
+	//asynchronous logging. The simulation log and trace files are written from background threads, and flushed on completion.
+	private boolean asyncLogging = false;
+	private int asyncLoggingBufferSize = DEFAULT_ASYNC_LOGGING_BUFFER_SIZE;
+	private AsyncOutputStream.OverflowPolicy asyncLoggingOverflow = AsyncOutputStream.OverflowPolicy.BLOCK;
+	private ArrayList<AsyncSimulationFileAppender> asyncAppenders = new ArrayList<AsyncSimulationFileAppender>();
+	private AsyncOutputStream asyncTraceOut = null;
+	
+	private MvaSolutionCache mvaSolutionCache = null; //MVA solutions shared by applications, if enabled
+	private MaxWorkloadCache maxWorkloadCache = null; //maximum workloads shared by applications, if enabled
 	
 	public static final void initializeLogging() {
 		
@@ -142,7 +210,55 @@ public class Simulation implements SimulationEventListener {
 	}
 	
 	public Simulation(String name) {
-		eventQueue = new PriorityQueue<Event>(1000, new EventComparator());
+		eventQueue = createEventQueue();
+		if (!hasProperty(REPEATING_EVENT_WHEEL_PROP) || Boolean.parseBoolean(getProperty(REPEATING_EVENT_WHEEL_PROP).trim())) {
+			repeatingEventWheel = new RepeatingEventWheel(eventQueue);
+		}
+		if (hasProperty(INCREMENTAL_SCHEDULING_PROP)) {
+			incrementalScheduling = Boolean.parseBoolean(getProperty(INCREMENTAL_SCHEDULING_PROP).trim());
+		}
+		if (hasProperty(COMPONENT_SCHEDULING_PROP)) {
+			componentScheduling = Boolean.parseBoolean(getProperty(COMPONENT_SCHEDULING_PROP).trim());
+		}
+		parallelExecutor = createParallelExecutor();
+		if (hasProperty(ASYNC_LOGGING_PROP)) {
+			asyncLogging = Boolean.parseBoolean(getProperty(ASYNC_LOGGING_PROP).trim());
+		}
+		if (hasProperty(ASYNC_LOGGING_BUFFER_SIZE_PROP)) {
+			asyncLoggingBufferSize = Integer.parseInt(getProperty(ASYNC_LOGGING_BUFFER_SIZE_PROP).trim());
+		}
+		if (hasProperty(ASYNC_LOGGING_OVERFLOW_PROP)) {
+			String overflow = getProperty(ASYNC_LOGGING_OVERFLOW_PROP).trim();
+			if (overflow.equals("block")) {
+				asyncLoggingOverflow = AsyncOutputStream.OverflowPolicy.BLOCK;
+			} else if (overflow.equals("drop")) {
+				asyncLoggingOverflow = AsyncOutputStream.OverflowPolicy.DROP;
+			} else {
+				throw new RuntimeException("Unknown " + ASYNC_LOGGING_OVERFLOW_PROP + " '" + overflow + "'. Must be 'block' or 'drop'.");
+			}
+		}
+		if (hasProperty(MVA_CACHE_SIZE_PROP)) {
+			int mvaCacheSize = Integer.parseInt(getProperty(MVA_CACHE_SIZE_PROP).trim());
+			if (mvaCacheSize > 0) {
+				double mvaCachePrecision = 0;
+				if (hasProperty(MVA_CACHE_PRECISION_PROP)) {
+					mvaCachePrecision = Double.parseDouble(getProperty(MVA_CACHE_PRECISION_PROP).trim());
+				}
+				mvaSolutionCache = new MvaSolutionCache(mvaCacheSize, mvaCachePrecision);
+			}
+		}
+		//the solutions held, and so the results, would depend on the order in which parallel demand updates reach the cache
+		if (mvaSolutionCache != null && parallelExecutor != null && (parallelDemandUpdate || componentScheduling)) {
+			throw new RuntimeException("The MVA solution cache (" + MVA_CACHE_SIZE_PROP + ") cannot be enabled with parallel demand updates (" +
+					PARALLEL_DEMAND_UPDATE_PROP + ", or " + COMPONENT_SCHEDULING_PROP + " with parallel scheduling)");
+		}
+		int maxWorkloadCacheSize = DEFAULT_MAX_WORKLOAD_CACHE_SIZE;
+		if (hasProperty(MAX_WORKLOAD_CACHE_SIZE_PROP)) {
+			maxWorkloadCacheSize = Integer.parseInt(getProperty(MAX_WORKLOAD_CACHE_SIZE_PROP).trim());
+		}
+		if (maxWorkloadCacheSize > 0) {
+			maxWorkloadCache = new MaxWorkloadCache(maxWorkloadCacheSize);
+		}
 		simulationTime = 0;
 		lastUpdate = 0;
 		this.name = name;
@@ -168,7 +284,7 @@ public class Simulation implements SimulationEventListener {
 			
 			Logger.getLogger("simLogger").setLevel(Level.DEBUG);
 			
-			SimulationFileAppender simAppender = new SimulationFileAppender();
+			SimulationFileAppender simAppender = createFileAppender();
 			
 			SimulationPatternLayout patternLayout = new SimulationPatternLayout(this);
 			patternLayout.setConversionPattern(conversionPattern);
@@ -212,10 +328,34 @@ public class Simulation implements SimulationEventListener {
 		Logger.getLogger("traceLogger").setAdditivity(false);
 		
 		traceLogger = Logger.getLogger("traceLogger." + name);
-		if (enableTrace) {
+		if (enableTrace && hasProperty(TRACE_FORMAT_PROP) && getProperty(TRACE_FORMAT_PROP).trim().equals("binary")) {
+			traceLogger.setLevel(Level.OFF);
+			
+			int blockSize = DEFAULT_TRACE_BLOCK_SIZE;
+			if (hasProperty(TRACE_BLOCK_SIZE_PROP)) {
+				blockSize = Integer.parseInt(getProperty(TRACE_BLOCK_SIZE_PROP).trim());
+			}
+			
+			new File(getLogDirectory()).mkdirs();
+			String timeStamp = new SimpleDateFormat(DEFAULT_TRACE_DATE_FORMAT).format(new Date());
+			String traceFileName = getLogDirectory() + "/" + name + "-" + timeStamp + DEFAULT_BINARY_TRACE_FILE_EXTENSION;
+			
+			OutputStream traceOut;
+			try {
+				traceOut = new FileOutputStream(traceFileName);
+			} catch (FileNotFoundException e) {
+				throw new RuntimeException("Could not create binary trace file " + traceFileName, e);
+			}
+			if (asyncLogging) {
+				//dropping part of a block would corrupt the trace, so always block when the buffer is full
+				asyncTraceOut = new AsyncOutputStream(traceOut, asyncLoggingBufferSize, AsyncOutputStream.OverflowPolicy.BLOCK, "AsyncTrace-" + name);
+				traceOut = asyncTraceOut;
+			}
+			traceWriter = new BinaryTraceWriter(this, traceOut, blockSize);
+		} else if (enableTrace) {
 			traceLogger.setLevel(Level.INFO);
 			
-			SimulationFileAppender simAppender = new SimulationFileAppender();
+			SimulationFileAppender simAppender = createFileAppender();
 			
 			SimulationPatternLayout patternLayout = new SimulationPatternLayout(this);
 			patternLayout.setConversionPattern(DEFAULT_TRACE_CONVERSION_PATTERN);
@@ -226,8 +366,10 @@ public class Simulation implements SimulationEventListener {
 			simAppender.activateOptions();
 			traceLogger.addAppender(simAppender);
 			
+			traceWriter = new TextTraceWriter(traceLogger);
 		} else {
 			traceLogger.setLevel(Level.OFF);
+			traceWriter = new TextTraceWriter(traceLogger);
 		}
 		
 		//initialize Random
@@ -237,6 +379,90 @@ public class Simulation implements SimulationEventListener {
 		
 	}
 	
+	/**
+	 * Create a file appender for the simulation log or trace, writing from a background thread if asynchronous logging
+	 * is enabled
+	 * @return
+	 */
+	private SimulationFileAppender createFileAppender() {
+		if (!asyncLogging)
+			return new SimulationFileAppender();
+		
+		AsyncSimulationFileAppender appender = new AsyncSimulationFileAppender();
+		appender.setBufferCapacity(asyncLoggingBufferSize);
+		appender.setOverflowPolicy(asyncLoggingOverflow);
+		asyncAppenders.add(appender);
+		return appender;
+	}
+	
+	/**
+	 * Write out all asynchronously logged output and stop the background writers. Output logged afterwards is written
+	 * synchronously.
+	 */
+	private void finishAsyncLogging() {
+		for (AsyncSimulationFileAppender appender : asyncAppenders) {
+			appender.finish();
+			if (appender.getDropped() > 0) {
+				simLogger.warn("Simulation " + name + " dropped " + appender.getDropped() + " lines from " + appender.getFile() + " as the asynchronous logging buffer was full");
+			}
+		}
+		if (asyncTraceOut != null) {
+			try {
+				asyncTraceOut.finish();
+			} catch (IOException e) {
+				throw new RuntimeException("Could not write binary trace file", e);
+			}
+		}
+	}
+	
+	/**
+	 * Create the EventQueue implementation selected by the 'eventQueue' property. Defaults to a binary heap.
+	 * @return
+	 */
+	private static EventQueue createEventQueue() {
+		String type = "heap";
+		if (hasProperty(EVENT_QUEUE_PROP)) {
+			type = getProperty(EVENT_QUEUE_PROP).trim();
+		}
+		
+		if (type.equalsIgnoreCase("heap")) {
+			return new HeapEventQueue();
+		} else if (type.equalsIgnoreCase("calendar")) {
+			return new CalendarEventQueue();
+		} else {
+			throw new RuntimeException("Unknown event queue type '" + type + "'");
+		}
+	}
+	
+	/**
+	 * Create the executor used to run scheduling rounds in parallel, if enabled by the 'enableParallelHostScheduling' or
+	 * 'enableParallelDemandUpdate' properties. Defaults to one thread per available processor.
+	 * @return The executor, or null if scheduling is sequential
+	 */
+	private ParallelSchedulingExecutor createParallelExecutor() {
+		if (hasProperty(PARALLEL_HOST_SCHEDULING_PROP)) {
+			parallelHostScheduling = Boolean.parseBoolean(getProperty(PARALLEL_HOST_SCHEDULING_PROP).trim());
+		}
+		if (hasProperty(PARALLEL_DEMAND_UPDATE_PROP)) {
+			parallelDemandUpdate = Boolean.parseBoolean(getProperty(PARALLEL_DEMAND_UPDATE_PROP).trim());
+		}
+		
+		if (!parallelHostScheduling && !parallelDemandUpdate)
+			return null;
+		
+		int nThreads = Runtime.getRuntime().availableProcessors();
+		if (hasProperty(PARALLEL_SCHEDULING_THREADS_PROP)) {
+			nThreads = Integer.parseInt(getProperty(PARALLEL_SCHEDULING_THREADS_PROP).trim());
+		}
+		
+		int chunkSize = DEFAULT_PARALLEL_SCHEDULING_CHUNK_SIZE;
+		if (hasProperty(PARALLEL_SCHEDULING_CHUNK_SIZE_PROP)) {
+			chunkSize = Integer.parseInt(getProperty(PARALLEL_SCHEDULING_CHUNK_SIZE_PROP).trim());
+		}
+		
+		return new ParallelSchedulingExecutor(nThreads, chunkSize);
+	}
+	
 	public final SimulationMetrics run(long duration, long metricRecordStart) {
 		
 		//ensure this simulation hasn't been run yet
@@ -246,6 +472,7 @@ public class Simulation implements SimulationEventListener {
 		//Initialize
 		ArrayList<Host> hosts = getHostList();
 		ArrayList<Cluster> clusters = getClusterList();
+		hostStateIndex = new HostStateIndex(hosts);
 		
 		Event e;
 		
@@ -266,6 +493,8 @@ public class Simulation implements SimulationEventListener {
 		
 		long nSteps = 0;
 		
+		ProfilingMetrics profiler = simulationMetrics.getProfilingMetrics();
+		
 		//main event loop
 		while (!eventQueue.isEmpty() && simulationTime < duration) {
 			
@@ -288,10 +517,14 @@ public class Simulation implements SimulationEventListener {
 				//Simulation time is advancing
 				
 				//schedule/allocate resources
+				long start = profiler.start();
 				scheduleResources(hosts);
+				profiler.stop(ProfilingMetrics.Phase.SCHEDULE_RESOURCES, start);
 
 				//revise/amend
+				start = profiler.start();
 				postScheduling();
+				profiler.stop(ProfilingMetrics.Phase.POST_SCHEDULING, start);
 				
 				//get the next event, which may have changed during the revise step
 				e = eventQueue.peek();
@@ -303,13 +536,17 @@ public class Simulation implements SimulationEventListener {
 				//advance to time e.getTime()
 				lastUpdate = simulationTime;
 				simulationTime = e.getTime();
+				start = profiler.start();
 				advanceSimulation(hosts);
+				profiler.stop(ProfilingMetrics.Phase.ADVANCE_SIMULATION, start);
 				
 				// Show progression over time.
 				if (enableProgressOutput && simulationTime % SimTime.hours(1) == 0)
 					simLogger.info(SimTime.toHumanReadable(simulationTime));
 
 				if (this.isRecordingMetrics()) {	
+					start = profiler.start();
+					
 					//update host metrics
 					simulationMetrics.recordHostMetrics(hosts);
 					
@@ -323,26 +560,33 @@ public class Simulation implements SimulationEventListener {
 					//generic call to custom metrics to record
 					simulationMetrics.recordMetrics();
 					
+					profiler.stop(ProfilingMetrics.Phase.RECORD_METRICS, start);
 				}
 			}
 
-			//log current state
-			for (DataCentre dc : datacentres) {
-				dc.logState();			
+			//log current state, skipping the traversal entirely if neither the simulation log nor the trace is written
+			if (isDebugEnabled() || enableTrace) {
+				long start = profiler.start();
+				for (DataCentre dc : datacentres) {
+					dc.logState();			
+				}
+				profiler.stop(ProfilingMetrics.Phase.LOG_STATE, start);
 			}
 			
 			//execute current events
+			long start = profiler.start();
 			while (!eventQueue.isEmpty() && (eventQueue.peek().getTime() == simulationTime)) {
-				e = eventQueue.poll();
-
-				e.preExecute();
-				e.getTarget().handleEvent(e);	//the target handles the event
-				e.triggerPostExecute();				//run any additional logic required by the event
-				e.triggerCallback();			//trigger any objects awaiting a post-event callback
+				executeEvent(eventQueue.poll());
 			}
+			profiler.stop(ProfilingMetrics.Phase.EXECUTE_EVENTS, start);
 			
 		}
 		
+		if (parallelExecutor != null)
+			parallelExecutor.shutdown();
+		
+		traceWriter.close();
+		
 		//Simulation is now completed
 		simulationMetrics.completeSimulation();
 		completeSimulation(duration);
@@ -356,46 +600,187 @@ public class Simulation implements SimulationEventListener {
 		
 	}
 
-	private void scheduleResources(ArrayList<Host> hosts) {	
+	/**
+	 * Execute a single event that has been removed from the event queue
+	 * @param e
+	 */
+	void executeEvent(Event e) {
+		ProfilingMetrics profiler = simulationMetrics.getProfilingMetrics();
+		long start = profiler.start();
+		
+		e.preExecute();
+		e.getTarget().handleEvent(e);	//the target handles the event
+		e.triggerPostExecute();				//run any additional logic required by the event
+		e.triggerCallback();			//trigger any objects awaiting a post-event callback
+		
+		//the wheel tick proxy is not profiled itself, the RepeatingEvents it fires are profiled individually
+		if (!(e.getTarget() instanceof RepeatingEventWheel))
+			profiler.stopEvent(e, start);
+	}
+
+	private void scheduleResources(ArrayList<Host> hosts) {
+		
+		if (incrementalScheduling && schedulingInitialized) {
+			//only reschedule the hosts and applications affected by changes since the last time step
+			expandDirtySets();
+			scheduleResources(dirtyHosts, dirtyApplications);
+		} else {
+			//only hosts that are ON, or have been switched off since they were last scheduled, have resources to schedule or reset
+			scheduleResources(hostStateIndex.getHostsToSchedule(), applications);
+			schedulingInitialized = true;
+		}
+		
+		dirtyHosts.clear();
+		dirtyApplications.clear();
+	}
+	
+	private void scheduleResources(Collection<Host> hosts, Collection<Application> applications) {	
 				
 		//reset host schedulers
 		for (Host host : hosts) {
 			//reset all scheduled resources to zero (subsequently, hosts not 'ON' will not be scheduled and will remain at zero)
 			host.getResourceScheduler().resetScheduling();
+			
+			//calculate VMM overhead. VMM applications are not registered with the simulation, and their demand does not change during scheduling
+			if (host.getState() == Host.HostState.ON) {
+				host.getVmmApplication().initializeScheduling();
+			}
 		}
 		
 		//initialize Applications (reset scheduled/demand, set scheduled = size)
 		for (Application application : applications) {
 			application.initializeScheduling();
 		}
+		
+		if (componentScheduling) {
+			//iterate each connected component to convergence separately, distributing components over threads if parallel scheduling is enabled
+			ArrayList<SchedulingComponent> components = SchedulingComponent.partition(hosts, applications);
+			int rounds = 0;
+			if (parallelExecutor != null) {
+				rounds = parallelExecutor.schedule(components);
+			} else {
+				for (SchedulingComponent component : components) {
+					rounds = Math.max(rounds, component.schedule());
+				}
+			}
+			simulationMetrics.recordSchedulingRounds(rounds);
+			return;
+		}
+
+		//hosts and applications to process in parallel, if enabled
+		ArrayList<Host> onHosts = null;
+		if (parallelHostScheduling) {
+			onHosts = new ArrayList<Host>();
+			for (Host host : hosts) {
+				if (host.getState() == Host.HostState.ON) {
+					onHosts.add(host);
+				}
+			}
+		}
+		ArrayList<Application> applicationList = null;
+		if (parallelDemandUpdate) {
+			applicationList = new ArrayList<Application>(applications);
+		}
 
 		//update application demands (includes solving MVA and updating cpu demand)
-		for (Application application : applications) {
-			application.updateDemand();
+		if (parallelDemandUpdate) {
+			parallelExecutor.updateDemand(applicationList);
+		} else {
+			for (Application application : applications) {
+				application.updateDemand();
+			}
 		}
 		
 		
 		//while not done
+		int rounds = 1;
 		boolean done = false;
 		while (!done) {
 			done = true;
+			++rounds;
 			//schedule cpu on all hosts (in no order)
-			for (Host host : hosts) {
-				//schedule cpu
-				if (host.getState() == Host.HostState.ON) {
-					host.getResourceScheduler().scheduleResources();
+			if (parallelHostScheduling) {
+				parallelExecutor.scheduleResources(onHosts);
+			} else {
+				for (Host host : hosts) {
+					//schedule cpu
+					if (host.getState() == Host.HostState.ON) {
+						host.getResourceScheduler().scheduleResources();
+					}
 				}
 			}
-			for (Application application : applications) {
-				boolean appUpdate = application.updateDemand(); 
-				done = done && !appUpdate; //stop when no calls to updateDemand result in changes  
+			if (parallelDemandUpdate) {
+				done = !parallelExecutor.updateDemand(applicationList); //stop when no calls to updateDemand result in changes
+			} else {
+				for (Application application : applications) {
+					boolean appUpdate = application.updateDemand(); 
+					done = done && !appUpdate; //stop when no calls to updateDemand result in changes  
+				}
 			}
 		}
 		
+		simulationMetrics.recordSchedulingRounds(rounds);
+		
 		
 
 	}
 	
+	/**
+	 * Expand the dirty Hosts and Applications to include every Host and Application whose scheduling could be affected
+	 * by them. Rescheduling a Host changes the resources available to the Applications running on it, and updating the
+	 * demand of an Application changes the demand placed on each of its Hosts, so the dirty sets are expanded to the
+	 * connected components of the Application-Host graph containing them. All other Hosts and Applications keep the
+	 * resources scheduled in the last time step.
+	 */
+	private void expandDirtySets() {
+		ArrayDeque<Host> hostQueue = new ArrayDeque<Host>(dirtyHosts);
+		ArrayDeque<Application> applicationQueue = new ArrayDeque<Application>(dirtyApplications);
+		
+		while (!hostQueue.isEmpty() || !applicationQueue.isEmpty()) {
+			while (!hostQueue.isEmpty()) {
+				for (Application application : SchedulingComponent.getApplications(hostQueue.poll())) {
+					//applications removed from the simulation, but still shutting down, are not rescheduled by the full path either
+					if (applications.contains(application) && dirtyApplications.add(application)) {
+						applicationQueue.add(application);
+					}
+				}
+			}
+			
+			while (!applicationQueue.isEmpty()) {
+				for (Host host : SchedulingComponent.getHosts(applicationQueue.poll())) {
+					if (dirtyHosts.add(host)) {
+						hostQueue.add(host);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Mark a Host as changed since the last time step, so that it is rescheduled when incremental scheduling is enabled
+	 * @param host
+	 */
+	public void markHostDirty(Host host) {
+		if (incrementalScheduling) {
+			dirtyHosts.add(host);
+		}
+	}
+	
+	/**
+	 * Mark an Application as changed since the last time step, so that it is rescheduled when incremental scheduling is enabled.
+	 * Applications that have been removed from the simulation are ignored.
+	 * @param application
+	 */
+	public void markApplicationDirty(Application application) {
+		if (incrementalScheduling && applications.contains(application)) {
+			dirtyApplications.add(application);
+		}
+	}
+	
+	public boolean isIncrementalScheduling() {
+		return incrementalScheduling;
+	}
+	
 	private void postScheduling() {
 		for (Application app : applications) {
 			app.postScheduling();
@@ -441,14 +826,20 @@ public class Simulation implements SimulationEventListener {
 		}
 		logger.info("Simulation Time: " + simTime + simUnits);
 		logger.info("Recorded Time: " + recordedTime + simUnits);
-	
+		
+		finishAsyncLogging();
 	}
 	
 	public final long sendEvent(Event event, long time) {
 		event.initialize(this);
 		event.setSendOrder(++eventSendCount);
 		event.setTime(time);
-		eventQueue.add(event);
+		
+		if (repeatingEventWheel != null && event instanceof RepeatingEvent) {
+			repeatingEventWheel.add((RepeatingEvent)event);
+		} else {
+			eventQueue.add(event);
+		}
 		
 		return event.getSendOrder();
 	}
@@ -458,7 +849,11 @@ public class Simulation implements SimulationEventListener {
 	}
 	
 	public final void dequeueEvent(Event event) {
-		eventQueue.remove(event);
+		if (repeatingEventWheel != null && event instanceof RepeatingEvent) {
+			repeatingEventWheel.remove((RepeatingEvent)event);
+		} else {
+			eventQueue.remove(event);
+		}
 	}
 	
 	@Override
@@ -484,10 +879,23 @@ public class Simulation implements SimulationEventListener {
 		return traceLogger;
 	}
 	
+	public final TraceWriter getTraceWriter() {
+		return traceWriter;
+	}
+	
 	public final boolean isTraceEnabled() {
 		return enableTrace;
 	}
 	
+	/**
+	 * Determine if debug output to the simulation logger will be written. Callers building expensive log messages should
+	 * check this first, as log4j only discards a message after it has been built.
+	 * @return
+	 */
+	public final boolean isDebugEnabled() {
+		return logger.isDebugEnabled();
+	}
+	
 	public final int nextId(String name) {
 		int id = 1;
 		
@@ -557,6 +965,40 @@ public class Simulation implements SimulationEventListener {
 		return simulationMetrics;
 	}
 	
+	/**
+	 * Get the cache of MVA solutions shared by the applications of the simulation
+	 * @return The cache, or null if MVA solutions are not cached
+	 */
+	public final MvaSolutionCache getMvaSolutionCache() {
+		return mvaSolutionCache;
+	}
+	
+	/**
+	 * Get the cache of maximum workloads shared by the applications of the simulation
+	 * @return The cache, or null if maximum workloads are not cached
+	 */
+	public final MaxWorkloadCache getMaxWorkloadCache() {
+		return maxWorkloadCache;
+	}
+	
+	/**
+	 * Get the number of events in the EventQueue. While the RepeatingEventWheel holds events, this includes its proxy event.
+	 * @return
+	 */
+	public final int getEventQueueSize() {
+		return eventQueue.size();
+	}
+	
+	/**
+	 * Get the number of RepeatingEvents held in the RepeatingEventWheel
+	 * @return The number of events, or 0 if the wheel is not enabled
+	 */
+	public final int getRepeatingEventWheelSize() {
+		if (repeatingEventWheel == null)
+			return 0;
+		return repeatingEventWheel.size();
+	}
+	
 	/**
 	 * Helper functions
 	 */
@@ -665,6 +1107,7 @@ public class Simulation implements SimulationEventListener {
 	
 	public void removeApplication(Application application) {
 		applications.remove(application);
+		dirtyApplications.remove(application);
 	}
 	
 	/**
@@ -704,6 +1147,39 @@ public class Simulation implements SimulationEventListener {
 		return clusters;
 	}
 	
+	/**
+	 * Update the index of hosts by state following a host state transition. Called by Host.
+	 * @param host
+	 * @param oldState The state of the host before the transition
+	 */
+	public void hostStateChanged(Host host, Host.HostState oldState) {
+		if (hostStateIndex != null) {
+			hostStateIndex.update(host, oldState);
+		}
+		markHostDirty(host);
+	}
+	
+	/**
+	 * Get the index of hosts by state. Only available once the simulation is running.
+	 * @return
+	 */
+	public HostStateIndex getHostStateIndex() {
+		return hostStateIndex;
+	}
+	
+	/**
+	 * Get all hosts in the simulation currently in a state, in the order of getHostList(). Only available once the
+	 * simulation is running.
+	 * @param state
+	 * @return
+	 */
+	public ArrayList<Host> getHosts(Host.HostState state) {
+		if (hostStateIndex == null)
+			throw new IllegalStateException("Hosts are only indexed by state once the simulation is running");
+		
+		return hostStateIndex.getHosts(state);
+	}
+	
 	public ArrayList<DataCentre> getDataCentres(){
 		return datacentres;
 	}
@@ -7,7 +7,6 @@ import org.apache.log4j.Logger;
 
 import edu.uwo.csd.dcsim.application.Application;
 import edu.uwo.csd.dcsim.application.InteractiveApplication;
-import edu.uwo.csd.dcsim.application.VmmApplication;
 import edu.uwo.csd.dcsim.common.Tuple;
 import edu.uwo.csd.dcsim.common.Utility;
 import edu.uwo.csd.dcsim.core.Simulation;
@@ -52,7 +51,7 @@ public class ApplicationMetrics extends MetricCollection {
 		super(simulation);
 		
 		if (Simulation.hasProperty("appSlaGraceTime")) {
-			appSlaGraceTime = Long.parseLong(Simulation.getProperty("appSlaGraceTime"));
+			appSlaGraceTime = Long.parseLong(Simulation.getProperty("appSlaGraceTime").trim());
 		}
 	}
 	
@@ -70,9 +69,6 @@ public class ApplicationMetrics extends MetricCollection {
 		double val;
 		for (Application application : applications) {
 			
-			//we don't want to record stats for Vmm applications
-			if (application instanceof VmmApplication) continue;
-			
 			//we don't want to record stats for inactive or complete applications
 			if (!application.isActive() || application.isComplete()) continue;		
 			
@@ -343,6 +339,10 @@ public class ApplicationMetrics extends MetricCollection {
 	public boolean isMVAApproximate() {
 		return InteractiveApplication.approximateMVA;
 	}
+	
+	public InteractiveApplication.MvaAlgorithm getMvaAlgorithm() {
+		return InteractiveApplication.mvaAlgorithm;
+	}
 
 	@Override
 	public void printDefault(Logger out) {
@@ -404,10 +404,15 @@ public class ApplicationMetrics extends MetricCollection {
 		out.info("    mean: " + Utility.roundDouble(getAggregateThroughput().getMean(), Simulation.getMetricPrecision()));
 		out.info("    min: " + Utility.roundDouble(getAggregateThroughput().getMin(), Simulation.getMetricPrecision()));
 		out.info("Interactive Application Model Algorithm: ");
-		if (!isMVAApproximate()) {
-			out.info("MVA");
-		} else {
-			out.info("Schweitzer's MVA Approximation");
+		switch (getMvaAlgorithm()) {
+			case LINEARIZER:
+				out.info("Linearizer MVA Approximation");
+				break;
+			case SCHWEITZER:
+				out.info("Schweitzer's MVA Approximation");
+				break;
+			default:
+				out.info("MVA");
 		}
 	}
 
@@ -6,6 +6,7 @@ import org.apache.log4j.Logger;
 
 import edu.uwo.csd.dcsim.common.Tuple;
 import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.core.HostStateIndex;
 import edu.uwo.csd.dcsim.core.Simulation;
 import edu.uwo.csd.dcsim.host.Host;
 
@@ -22,6 +23,10 @@ public class HostMetrics extends MetricCollection {
 	
 	long nHosts;
 	
+	//total capacity of all hosts, calculated once when hosts are indexed by state
+	private long totalCapacity = -1;
+	private long totalMemoryCapacity = -1;
+	
 	public HostMetrics(Simulation simulation) {
 		super(simulation);
 	}
@@ -39,7 +44,30 @@ public class HostMetrics extends MetricCollection {
 		
 		nHosts = hosts.size();
 		
-		for (Host host : hosts) {
+		/*
+		 * If the hosts are indexed by state, skip OFF hosts. An OFF host has no CPU in use and, by the HostPowerModel
+		 * contract enforced by Host, consumes no power. The memory in use on OFF hosts is totalled by the index. Total
+		 * capacity does not change.
+		 */
+		HostStateIndex hostStateIndex = simulation.getHostStateIndex();
+		Collection<Host> recordedHosts = hosts;
+		if (hostStateIndex != null && hostStateIndex.size() == hosts.size()) {
+			recordedHosts = hostStateIndex.getHostsExcept(Host.HostState.OFF);
+			
+			if (totalCapacity == -1) {
+				totalCapacity = 0;
+				totalMemoryCapacity = 0;
+				for (Host host : hosts) {
+					totalCapacity += host.getResourceManager().getTotalCpu();
+					totalMemoryCapacity += host.getResourceManager().getTotalMemory();
+				}
+			}
+			currentTotalCapacity = totalCapacity;
+			currentTotalMemoryCapacity = totalMemoryCapacity;
+			currentTotalMemoryInUse = hostStateIndex.getOffMemoryInUse();
+		}
+		
+		for (Host host : recordedHosts) {
 			currentPowerConsumption += host.getCurrentPowerConsumption();
 			
 			if (host.getState() == Host.HostState.ON) {
@@ -50,11 +78,14 @@ public class HostMetrics extends MetricCollection {
 			
 			// CPU
 			currentTotalInUse += host.getResourceManager().getCpuInUse();
-			currentTotalCapacity += host.getResourceManager().getTotalCpu();
 			
 			// Memory
 			currentTotalMemoryInUse += host.getResourceManager().getMemoryInUse();
-			currentTotalMemoryCapacity += host.getResourceManager().getTotalMemory();
+			
+			if (recordedHosts == hosts) {
+				currentTotalCapacity += host.getResourceManager().getTotalCpu();
+				currentTotalMemoryCapacity += host.getResourceManager().getTotalMemory();
+			}
 		}
 		
 		// CPU
@@ -0,0 +1,176 @@
+package edu.uwo.csd.dcsim.core.metrics;
+
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.apache.log4j.Logger;
+
+import edu.uwo.csd.dcsim.common.Tuple;
+import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.core.Event;
+import edu.uwo.csd.dcsim.core.Simulation;
+
+/**
+ * Records the cumulative wall-clock time and number of calls of each phase of the simulation main loop, and of the
+ * handling of each type of Event. Profiling is disabled unless the 'enableProfiling' property is set to true, in which
+ * case nothing is recorded or reported.
+ *
+ * Usage: long start = profiler.start(); ... profiler.stop(Phase.X, start);
+ *
+ */
+public class ProfilingMetrics extends MetricCollection {
+
+	public enum Phase {
+		SCHEDULE_RESOURCES ("scheduleResources"),
+		POST_SCHEDULING ("postScheduling"),
+		ADVANCE_SIMULATION ("advanceSimulation"),
+		RECORD_METRICS ("recordMetrics"),
+		LOG_STATE ("logState"),
+		EXECUTE_EVENTS ("executeEvents");
+
+		private final String name;
+
+		private Phase(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	private boolean enabled = false;
+
+	private long[] phaseTime = new long[Phase.values().length];		//in nanoseconds
+	private long[] phaseCalls = new long[Phase.values().length];
+
+	Map<Class<? extends Event>, Long> eventTime = new LinkedHashMap<Class<? extends Event>, Long>(); //in nanoseconds
+	Map<Class<? extends Event>, Long> eventCount = new LinkedHashMap<Class<? extends Event>, Long>();
+
+	public ProfilingMetrics(Simulation simulation) {
+		super(simulation);
+
+		if (Simulation.hasProperty("enableProfiling")) {
+			enabled = Boolean.parseBoolean(Simulation.getProperty("enableProfiling").trim());
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Mark the start of a profiled section
+	 * @return The start time to pass to stop(), or 0 if profiling is disabled
+	 */
+	public long start() {
+		if (!enabled) return 0;
+
+		return System.nanoTime();
+	}
+
+	/**
+	 * Mark the end of a phase of the main loop
+	 * @param phase
+	 * @param start The value returned by start() at the beginning of the phase
+	 */
+	public void stop(Phase phase, long start) {
+		if (!enabled) return;
+
+		phaseTime[phase.ordinal()] += System.nanoTime() - start;
+		++phaseCalls[phase.ordinal()];
+	}
+
+	/**
+	 * Mark the end of the handling of an event
+	 * @param e
+	 * @param start The value returned by start() before the event was handled
+	 */
+	public void stopEvent(Event e, long start) {
+		if (!enabled) return;
+
+		long elapsed = System.nanoTime() - start;
+
+		long time = 0;
+		long count = 0;
+		if (eventCount.containsKey(e.getClass())) {
+			time = eventTime.get(e.getClass());
+			count = eventCount.get(e.getClass());
+		}
+
+		eventTime.put(e.getClass(), time + elapsed);
+		eventCount.put(e.getClass(), count + 1);
+	}
+
+	/**
+	 * Get the total time spent in a phase
+	 * @param phase
+	 * @return Time, in milliseconds
+	 */
+	public double getPhaseTime(Phase phase) {
+		return phaseTime[phase.ordinal()] / 1000000d;
+	}
+
+	public long getPhaseCalls(Phase phase) {
+		return phaseCalls[phase.ordinal()];
+	}
+
+	/**
+	 * Get the total time spent handling each type of event
+	 * @return Time, in milliseconds, by event type
+	 */
+	public Map<Class<? extends Event>, Double> getEventTime() {
+		Map<Class<? extends Event>, Double> times = new LinkedHashMap<Class<? extends Event>, Double>();
+		for (Entry<Class<? extends Event>, Long> entry : eventTime.entrySet()) {
+			times.put(entry.getKey(), entry.getValue() / 1000000d);
+		}
+		return times;
+	}
+
+	public Map<Class<? extends Event>, Long> getEventCount() {
+		return eventCount;
+	}
+
+	@Override
+	public void completeSimulation() {
+
+	}
+
+	@Override
+	public void printDefault(Logger out) {
+		if (!enabled) return;
+
+		out.info("-- PROFILING --");
+		out.info("Phases");
+		for (Phase phase : Phase.values()) {
+			out.info("    " + phase.getName() + ": " + Utility.roundDouble(getPhaseTime(phase), Simulation.getMetricPrecision()) + "ms (" + getPhaseCalls(phase) + " calls)");
+		}
+		out.info("Events");
+		for (Entry<Class<? extends Event>, Double> entry : getEventTime().entrySet()) {
+			out.info("    " + entry.getKey().getName() + ": " + Utility.roundDouble(entry.getValue(), Simulation.getMetricPrecision()) + "ms (" + eventCount.get(entry.getKey()) + " events)");
+		}
+	}
+
+	@Override
+	public List<Tuple<String, Object>> getMetricValues() {
+		List<Tuple<String, Object>> metrics = new ArrayList<Tuple<String, Object>>();
+
+		if (!enabled) return metrics;
+
+		for (Phase phase : Phase.values()) {
+			metrics.add(new Tuple<String, Object>("profile-" + phase.getName() + "-time", Utility.roundDouble(getPhaseTime(phase), Simulation.getMetricPrecision())));
+			metrics.add(new Tuple<String, Object>("profile-" + phase.getName() + "-calls", getPhaseCalls(phase)));
+		}
+		for (Entry<Class<? extends Event>, Double> entry : getEventTime().entrySet()) {
+			metrics.add(new Tuple<String, Object>("profile-" + entry.getKey().getName() + "-time", Utility.roundDouble(entry.getValue(), Simulation.getMetricPrecision())));
+			metrics.add(new Tuple<String, Object>("profile-" + entry.getKey().getName() + "-count", eventCount.get(entry.getKey())));
+		}
+
+		return metrics;
+	}
+
+}
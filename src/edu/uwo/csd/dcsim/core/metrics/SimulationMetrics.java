@@ -16,6 +16,7 @@ import org.jopendocument.dom.spreadsheet.SpreadSheet;
 import edu.uwo.csd.dcsim.application.Application;
 import edu.uwo.csd.dcsim.common.SimTime;
 import edu.uwo.csd.dcsim.common.Tuple;
+import edu.uwo.csd.dcsim.common.Utility;
 import edu.uwo.csd.dcsim.core.Simulation;
 import edu.uwo.csd.dcsim.host.Cluster;
 import edu.uwo.csd.dcsim.host.Host;
@@ -27,11 +28,20 @@ public class SimulationMetrics {
 	ClusterMetrics clusterMetrics;
 	ApplicationMetrics applicationMetrics;
 	ManagementMetrics managementMetrics;
+	ProfilingMetrics profilingMetrics;
 	Map<Class<? extends MetricCollection>, MetricCollection> customMetrics = new HashMap<Class<? extends MetricCollection>, MetricCollection>();
 	
 	long executionTime;
 	int applicationSchedulingTimedOut = 0;
+	Set<Integer> applicationSchedulingTimedOutIds = new TreeSet<Integer>();
+	TreeMap<Integer, Long> schedulingRounds = new TreeMap<Integer, Long>(); //number of time steps, by number of scheduling rounds needed
 	long nSteps = 0;
+	long mvaColdSolves = 0; //approximate MVA solutions started from an even distribution of clients, and their iterations
+	long mvaColdIterations = 0;
+	long mvaWarmSolves = 0; //approximate MVA solutions started from the previous solution, and their iterations
+	long mvaWarmIterations = 0;
+	long mvaCacheHits = 0; //MVA solutions found in, and not found in, the MVA solution cache
+	long mvaCacheMisses = 0;
 	
 	public SimulationMetrics(Simulation simulation) {
 		this.simulation = simulation;
@@ -40,6 +50,7 @@ public class SimulationMetrics {
 		clusterMetrics = new ClusterMetrics(simulation);
 		applicationMetrics = new ApplicationMetrics(simulation);
 		managementMetrics = new ManagementMetrics(simulation);
+		profilingMetrics = new ProfilingMetrics(simulation);
 	}
 	
 	public HostMetrics getHostMetrics() {
@@ -58,6 +69,10 @@ public class SimulationMetrics {
 		return managementMetrics;
 	}
 	
+	public ProfilingMetrics getProfilingMetrics() {
+		return profilingMetrics;
+	}
+	
 	public void recordMetrics() {
 		for (MetricCollection custom : customMetrics.values()) {
 			custom.recordMetrics();
@@ -90,6 +105,7 @@ public class SimulationMetrics {
 		clusterMetrics.completeSimulation();
 		applicationMetrics.completeSimulation();
 		managementMetrics.completeSimulation();
+		profilingMetrics.completeSimulation();
 		
 		for (MetricCollection custom : customMetrics.values()) {
 			custom.completeSimulation();
@@ -120,8 +136,118 @@ public class SimulationMetrics {
 		this.applicationSchedulingTimedOut = applicationSchedulingTimedOut;
 	}
 	
-	public void incrementApplicationSchedulingTimedOut() {
+	public synchronized void incrementApplicationSchedulingTimedOut() {
+		++applicationSchedulingTimedOut;
+	}
+	
+	public synchronized void incrementApplicationSchedulingTimedOut(Application application) {
 		++applicationSchedulingTimedOut;
+		applicationSchedulingTimedOutIds.add(application.getId());
+	}
+	
+	/**
+	 * Get the IDs of all applications for which scheduling has timed out at least once
+	 * @return
+	 */
+	public Set<Integer> getApplicationSchedulingTimedOutIds() {
+		return applicationSchedulingTimedOutIds;
+	}
+	
+	/**
+	 * Record the number of scheduling rounds needed to reach a fixed point in a time step
+	 * @param rounds
+	 */
+	public void recordSchedulingRounds(int rounds) {
+		Long count = schedulingRounds.get(rounds);
+		if (count == null) count = 0l;
+		schedulingRounds.put(rounds, count + 1);
+	}
+	
+	/**
+	 * Get a histogram of the number of scheduling rounds needed per time step
+	 * @return Number of time steps, by number of rounds
+	 */
+	public Map<Integer, Long> getSchedulingRounds() {
+		return schedulingRounds;
+	}
+	
+	public double getSchedulingRoundsMean() {
+		long steps = 0;
+		long rounds = 0;
+		for (Map.Entry<Integer, Long> entry : schedulingRounds.entrySet()) {
+			steps += entry.getValue();
+			rounds += entry.getKey() * entry.getValue();
+		}
+		if (steps == 0) return 0;
+		return rounds / (double)steps;
+	}
+	
+	public int getSchedulingRoundsMax() {
+		if (schedulingRounds.isEmpty()) return 0;
+		return schedulingRounds.lastKey();
+	}
+	
+	/**
+	 * Record the number of iterations an approximate MVA solution took to converge
+	 * @param warmStart True if the solution started from the previous solution
+	 * @param iterations
+	 */
+	public synchronized void recordMvaSolve(boolean warmStart, int iterations) {
+		if (warmStart) {
+			++mvaWarmSolves;
+			mvaWarmIterations += iterations;
+		} else {
+			++mvaColdSolves;
+			mvaColdIterations += iterations;
+		}
+	}
+	
+	public double getMvaIterationsMean() {
+		long solves = mvaColdSolves + mvaWarmSolves;
+		if (solves == 0) return 0;
+		return (mvaColdIterations + mvaWarmIterations) / (double)solves;
+	}
+	
+	public double getMvaWarmStartFraction() {
+		long solves = mvaColdSolves + mvaWarmSolves;
+		if (solves == 0) return 0;
+		return mvaWarmSolves / (double)solves;
+	}
+	
+	/**
+	 * Get the average number of iterations saved by each warm started approximate MVA solution, estimated as the
+	 * difference between the mean iterations of cold and warm started solutions
+	 * @return
+	 */
+	public double getMvaIterationsSavedMean() {
+		if (mvaColdSolves == 0 || mvaWarmSolves == 0) return 0;
+		return (mvaColdIterations / (double)mvaColdSolves) - (mvaWarmIterations / (double)mvaWarmSolves);
+	}
+	
+	/**
+	 * Record a lookup in the MVA solution cache
+	 * @param hit True if a solution was found
+	 */
+	public synchronized void recordMvaCacheLookup(boolean hit) {
+		if (hit) {
+			++mvaCacheHits;
+		} else {
+			++mvaCacheMisses;
+		}
+	}
+	
+	public long getMvaCacheHits() {
+		return mvaCacheHits;
+	}
+	
+	public long getMvaCacheMisses() {
+		return mvaCacheMisses;
+	}
+	
+	public double getMvaCacheHitRate() {
+		long lookups = mvaCacheHits + mvaCacheMisses;
+		if (lookups == 0) return 0;
+		return mvaCacheHits / (double)lookups;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -155,8 +281,29 @@ public class SimulationMetrics {
 		out.info("   metric recording start: " + SimTime.toHumanReadable(simulation.getMetricRecordStart()));
 		out.info("   metric recording duration: " + SimTime.toHumanReadable(simulation.getDuration() - simulation.getMetricRecordStart()));
 		out.info("   application scheduling timed out: " + applicationSchedulingTimedOut);
+		if (!applicationSchedulingTimedOutIds.isEmpty()) {
+			out.info("   timed out applications: " + applicationSchedulingTimedOutIds);
+		}
+		out.info("   scheduling rounds per step: mean " + Utility.roundDouble(getSchedulingRoundsMean(), Simulation.getMetricPrecision()) + ", max " + getSchedulingRoundsMax());
+		for (Map.Entry<Integer, Long> entry : schedulingRounds.entrySet()) {
+			out.info("      " + entry.getKey() + " rounds: " + entry.getValue() + " steps");
+		}
+		if (mvaColdSolves + mvaWarmSolves > 0) {
+			out.info("   approximate MVA iterations per solution: mean " + Utility.roundDouble(getMvaIterationsMean(), Simulation.getMetricPrecision()) +
+					", warm started " + Utility.roundDouble(Utility.toPercentage(getMvaWarmStartFraction()), Simulation.getMetricPrecision()) + "%" +
+					", saved per warm start " + Utility.roundDouble(getMvaIterationsSavedMean(), Simulation.getMetricPrecision()));
+		}
+		if (mvaCacheHits + mvaCacheMisses > 0) {
+			out.info("   MVA solution cache: " + mvaCacheHits + " hits, " + mvaCacheMisses + " misses, hit rate " +
+					Utility.roundDouble(Utility.toPercentage(getMvaCacheHitRate()), Simulation.getMetricPrecision()) + "%");
+		}
 		out.info("   simulation time steps: " + nSteps);
 		
+		if (profilingMetrics.isEnabled()) {
+			out.info("");
+			profilingMetrics.printDefault(out);
+		}
+		
 	}
 	
 	public List<Tuple<String, Object>> getMetricValues() {
@@ -168,11 +315,20 @@ public class SimulationMetrics {
 		metrics.add(new Tuple<String, Object>("metricRecordDuration", simulation.getDuration() - simulation.getMetricRecordStart()));
 		metrics.add(new Tuple<String, Object>("appSchedulingTimeout", applicationSchedulingTimedOut));
 		metrics.add(new Tuple<String, Object>("nSteps", nSteps));
+		metrics.add(new Tuple<String, Object>("schedulingRoundsMean", Utility.roundDouble(getSchedulingRoundsMean(), Simulation.getMetricPrecision())));
+		metrics.add(new Tuple<String, Object>("schedulingRoundsMax", getSchedulingRoundsMax()));
+		metrics.add(new Tuple<String, Object>("mvaIterationsMean", Utility.roundDouble(getMvaIterationsMean(), Simulation.getMetricPrecision())));
+		metrics.add(new Tuple<String, Object>("mvaWarmStartFraction", Utility.roundDouble(getMvaWarmStartFraction(), Simulation.getMetricPrecision())));
+		metrics.add(new Tuple<String, Object>("mvaIterationsSavedMean", Utility.roundDouble(getMvaIterationsSavedMean(), Simulation.getMetricPrecision())));
+		metrics.add(new Tuple<String, Object>("mvaCacheHits", mvaCacheHits));
+		metrics.add(new Tuple<String, Object>("mvaCacheMisses", mvaCacheMisses));
+		metrics.add(new Tuple<String, Object>("mvaCacheHitRate", Utility.roundDouble(getMvaCacheHitRate(), Simulation.getMetricPrecision())));
 
 		metrics.addAll(hostMetrics.getMetricValues());
 		metrics.addAll(clusterMetrics.getMetricValues());
 		metrics.addAll(applicationMetrics.getMetricValues());
 		metrics.addAll(managementMetrics.getMetricValues());
+		metrics.addAll(profilingMetrics.getMetricValues());
 		
 		for (MetricCollection custom : customMetrics.values()) {
 			metrics.addAll(custom.getMetricValues());
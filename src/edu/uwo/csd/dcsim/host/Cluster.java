@@ -32,6 +32,9 @@ public final class Cluster implements SimulationEventListener {
 	public enum ClusterState {ON, SUSPENDED, OFF;}
 	private ClusterState state;
 	
+	private int activeRacks = 0;							// Number of racks ON, updated by Rack.updateState.
+	private int suspendedRacks = 0;						// Number of racks SUSPENDED, updated by Rack.updateState.
+	
 	private final int hashCode;
 	
 	private Cluster(Builder builder) {
@@ -68,6 +71,7 @@ public final class Cluster implements SimulationEventListener {
 			mgmtSwitches.get(i % nSwitches).addPort(link);
 			
 			this.racks.add(rack);
+			rackStateChanged(null, rack.getState());
 		}
 		
 		// Complete network(s) layout.
@@ -177,16 +181,6 @@ public final class Cluster implements SimulationEventListener {
 	}
 	
 	public void updateState() {
-		// Calculate number of active and suspended Racks -- the rest are powered-off.
-		int activeRacks = 0;
-		int suspendedRacks = 0;
-		for (Rack rack : racks) {
-			if (rack.getState() == Rack.RackState.ON)
-				activeRacks++;
-			else if (rack.getState() == Rack. RackState.SUSPENDED)
-				suspendedRacks++;
-		}
-		
 		// Determine Rack's current state.
 		if (activeRacks > 0)
 			state = ClusterState.ON;
@@ -196,6 +190,24 @@ public final class Cluster implements SimulationEventListener {
 			state = ClusterState.OFF;
 	}
 	
+	/**
+	 * Update the count of active and suspended Racks following a Rack state change. The Cluster state itself is not
+	 * changed until updateState() is called.
+	 * @param oldState The previous state of the Rack, or null if the Rack is new to the Cluster
+	 * @param newState
+	 */
+	void rackStateChanged(Rack.RackState oldState, Rack.RackState newState) {
+		if (oldState == Rack.RackState.ON)
+			activeRacks--;
+		else if (oldState == Rack.RackState.SUSPENDED)
+			suspendedRacks--;
+		
+		if (newState == Rack.RackState.ON)
+			activeRacks++;
+		else if (newState == Rack.RackState.SUSPENDED)
+			suspendedRacks++;
+	}
+	
 	@Override
 	public void handleEvent(Event e) {
 		// TODO Auto-generated method stub
@@ -67,6 +67,11 @@ public final class Host implements SimulationEventListener {
 	private double utilizationSum = 0; //used to calculate average utilization
 	private double powerConsumed = 0; //total power consumed by the host
 	
+	//current power consumption, memoized on the inputs to the (immutable) power model: the state and CPU in use
+	private HostState powerState = null;
+	private int powerCpuInUse = -1;
+	private double currentPower = 0;
+	
 	private HostState state;
 	
 	private Host(Builder builder) {
@@ -115,14 +120,10 @@ public final class Host implements SimulationEventListener {
 		state = HostState.OFF;
 		
 		//write host description to the trace
-		//FORMAT: 0,#hd,id,cpuCapacity,memCapacity,bwCapacity,storageCapacity,idlePower,peakPower
-		
-		simulation.getTraceLogger().info("#hd," + getId() + "," + this.getTotalCpu() + "," +
-				this.getMemory() + "," + 
-				this.getBandwidth() + "," + 
-				this.getStorage() + "," + 
-				this.getPowerModel().getPowerConsumption(0) + "," +
-				this.getPowerModel().getPowerConsumption(1));
+		if (simulation.isTraceEnabled()) {
+			simulation.getTraceWriter().hostDescription(getId(), getTotalCpu(), getMemory(), getBandwidth(), getStorage(),
+					getPowerModel().getPowerConsumption(0), getPowerModel().getPowerConsumption(1));
+		}
 		
 		//init hashCode
 		hashCode = generateHashCode();
@@ -207,6 +208,8 @@ public final class Host implements SimulationEventListener {
 				throw new IllegalStateException("Must specify Resource Scheduler factory before building Host");
 			if (powerModel == null)
 				throw new IllegalStateException("Must specify power model before building Host");
+			if (powerModel.getPowerConsumption(HostState.OFF, 0) != 0)
+				throw new IllegalStateException("Power model must give an OFF Host no power consumption");
 			
 			return new Host(this);
 		}
@@ -311,8 +314,20 @@ public final class Host implements SimulationEventListener {
 	 * Host info
 	 */
 	
+	/**
+	 * Get the current power consumption of the Host. The value is recomputed only when the state of the Host or its CPU
+	 * in use has changed since the last call, so that metrics, Racks, Clusters and HostStatus snapshots taken in the same
+	 * time step share a single evaluation of the power model.
+	 * @return
+	 */
 	public double getCurrentPowerConsumption() {
-		return powerModel.getPowerConsumption(state, getResourceManager().getCpuUtilization());
+		int cpuInUse = resourceManager.getCpuInUse();
+		if (state != powerState || cpuInUse != powerCpuInUse) {
+			currentPower = powerModel.getPowerConsumption(state, resourceManager.getCpuUtilization());
+			powerState = state;
+			powerCpuInUse = cpuInUse;
+		}
+		return currentPower;
 	}
 	
 
@@ -338,6 +353,7 @@ public final class Host implements SimulationEventListener {
 		
 		//add the allocation to the Host list of allocations
 		vmAllocations.add(newAllocation);
+		simulation.markHostDirty(this);
 		startingVm.add(newAllocation);
 		
 		// Set VM allocation in incoming event.
@@ -369,9 +385,11 @@ public final class Host implements SimulationEventListener {
 		newAllocation.setVm(newVm);
 		newVm.setVMAllocation(newAllocation);
 		startingVm.remove(newAllocation);
+		simulation.markHostDirty(this);
 		
 		simulation.getLogger().debug("Host #" + this.getId() + " created & started VM #" + newAllocation.getVm().getId());
-		simulation.getTraceLogger().info("#vs," + newVm.getId() + "," + newVm.getVMAllocation().getHost().getId());
+		if (simulation.isTraceEnabled())
+			simulation.getTraceWriter().vmStart(newVm.getId(), newVm.getVMAllocation().getHost().getId());
 	}
 	
 	/**
@@ -393,6 +411,7 @@ public final class Host implements SimulationEventListener {
 		
 		//add the allocation to the Host list of allocations
 		vmAllocations.add(newAllocation);
+		simulation.markHostDirty(this);
 		
 		//create a new VM in the allocation
 		Vm newVm = newAllocation.getVMDescription().createVM(simulation);
@@ -400,7 +419,8 @@ public final class Host implements SimulationEventListener {
 		newVm.setVMAllocation(newAllocation);
 		
 		simulation.getLogger().debug(simulation.getSimulationTime() + " Host #" + this.getId() + " allocated & created VM #" + newAllocation.getVm().getId());
-		simulation.getTraceLogger().info("#vs," + newVm.getId() + "," + newVm.getVMAllocation().getHost().getId());
+		if (simulation.isTraceEnabled())
+			simulation.getTraceWriter().vmStart(newVm.getId(), newVm.getVMAllocation().getHost().getId());
 	}
 	
 	public boolean isCapable(VmDescription vmDescription) {
@@ -427,8 +447,10 @@ public final class Host implements SimulationEventListener {
 	
 	public void deallocate(VmAllocation vmAllocation) {
 		resourceManager.deallocateResource(vmAllocation);
+		resourceManager.updateCpuInUse(-vmAllocation.getCpuInUse());
 		
 		vmAllocations.remove(vmAllocation);
+		simulation.markHostDirty(this);
 	}
 	
 	/*
@@ -483,6 +505,7 @@ public final class Host implements SimulationEventListener {
 		
 		//add the allocation to the Host list of allocations
 		vmAllocations.add(newAllocation);
+		simulation.markHostDirty(this);
 		
 		//add the allocation to migratingIn list
 		migratingIn.add(newAllocation);
@@ -515,6 +538,7 @@ public final class Host implements SimulationEventListener {
 		}
 		
 		migratingOut.add(vmAllocation);
+		simulation.markHostDirty(this);
 		
 		if (isPendingMigration(vm))
 			pendingOutgoingMigrations.remove(vm);
@@ -543,6 +567,7 @@ public final class Host implements SimulationEventListener {
 		//attach VM to allocation
 		vmAllocation.setVm(vm);
 		vm.setVMAllocation(vmAllocation);
+		simulation.markHostDirty(this);
 		
 		simulation.getLogger().debug("Host #" + this.getId() + " completed migrating incoming VM #" + vm.getId());
 		
@@ -569,7 +594,7 @@ public final class Host implements SimulationEventListener {
 	
 	public void suspend(PowerStateEvent event) {
 		if (state != HostState.SUSPENDED && state != HostState.SUSPENDING) {
-			state = HostState.SUSPENDING;
+			setState(HostState.SUSPENDING);
 			long delay = Long.parseLong(Simulation.getProperty("hostSuspendDelay"));
 			
 			PowerStateEvent completeEvent = new PowerStateEvent(this, PowerState.SUSPEND, true);
@@ -586,7 +611,7 @@ public final class Host implements SimulationEventListener {
 				//if migrations are in progress, power off after they are complete
 				powerOffAfterMigrations = event;
 			} else {
-				state = HostState.POWERING_OFF;
+				setState(HostState.POWERING_OFF);
 				long delay = Long.parseLong(Simulation.getProperty("hostPowerOffDelay"));
 				
 				PowerStateEvent completeEvent = new PowerStateEvent(this, PowerState.POWER_OFF, true);
@@ -629,7 +654,7 @@ public final class Host implements SimulationEventListener {
 			event.addEventInSequence(completeEvent);
 			simulation.sendEvent(completeEvent, simulation.getSimulationTime() + delay);
 			
-			state = HostState.POWERING_ON;
+			setState(HostState.POWERING_ON);
 			
 			//inform any managers that the host is turning on
 			if (autonomicManager != null)
@@ -644,7 +669,7 @@ public final class Host implements SimulationEventListener {
 	private void completePowerOn() {
 
 		if (state != HostState.ON) {
-			state = HostState.ON;
+			setState(HostState.ON);
 			for (Event e : powerOnEventQueue) {
 				e.setBlockPostEvent(false);
 				handleEvent(e);
@@ -656,7 +681,7 @@ public final class Host implements SimulationEventListener {
 	}
 	
 	private void completePowerOff() {
-		state = HostState.OFF;
+		setState(HostState.OFF);
 		
 		if (autonomicManager != null)
 			autonomicManager.onContainerStop();
@@ -667,7 +692,7 @@ public final class Host implements SimulationEventListener {
 	}
 	
 	private void completeSuspend() {
-		state = HostState.SUSPENDED;
+		setState(HostState.SUSPENDED);
 		
 		if (autonomicManager != null)
 			autonomicManager.onContainerStop();
@@ -678,7 +703,7 @@ public final class Host implements SimulationEventListener {
 	}
 	
 	public void fail() {
-		state = HostState.FAILED;
+		setState(HostState.FAILED);
 	}
 	
 	/**
@@ -698,24 +723,27 @@ public final class Host implements SimulationEventListener {
 	 */
 	public void logState() {
 
-		if (state == HostState.ON) {
-			//logger output (human readable) 
-			simulation.getLogger().debug("Host #" + getId() + 
-					" CPU[" + (int)Math.round(resourceManager.getCpuInUse()) + "/" + resourceManager.getTotalCpu() + "] " +
-					" BW[" + resourceManager.getAllocatedBandwidth() + "/" + resourceManager.getTotalBandwidth() + "] " +
-					" MEM[" + resourceManager.getAllocatedMemory() + "/" + resourceManager.getTotalMemory() + "] " +
-					" STORAGE[" + resourceManager.getAllocatedStorage() + "/" + resourceManager.getTotalStorage() + "] " +
-					"Power[" + Utility.roundDouble(this.getCurrentPowerConsumption(), 2) + "W]");	
-		} else {
-			simulation.getLogger().debug("Host #" + getId() + " " + state);
+		boolean debug = simulation.isDebugEnabled();
+		
+		//logger output (human readable)
+		if (debug) {
+			if (state == HostState.ON) {
+				simulation.getLogger().debug("Host #" + getId() + 
+						" CPU[" + (int)Math.round(resourceManager.getCpuInUse()) + "/" + resourceManager.getTotalCpu() + "] " +
+						" BW[" + resourceManager.getAllocatedBandwidth() + "/" + resourceManager.getTotalBandwidth() + "] " +
+						" MEM[" + resourceManager.getAllocatedMemory() + "/" + resourceManager.getTotalMemory() + "] " +
+						" STORAGE[" + resourceManager.getAllocatedStorage() + "/" + resourceManager.getTotalStorage() + "] " +
+						"Power[" + Utility.roundDouble(this.getCurrentPowerConsumption(), 2) + "W]");	
+			} else {
+				simulation.getLogger().debug("Host #" + getId() + " " + state);
+			}
 		}
 		
 		//trace output
-		simulation.getTraceLogger().info("#h," + getId() + "," + state + "," + (int)Math.round(resourceManager.getCpuInUse()) + "," +
-				resourceManager.getAllocatedMemory() + "," +
-				resourceManager.getAllocatedBandwidth() + "," +
-				resourceManager.getAllocatedStorage() + "," + 
-				Utility.roundDouble(this.getCurrentPowerConsumption(), 2));
+		if (simulation.isTraceEnabled()) {
+			simulation.getTraceWriter().hostState(getId(), state, resourceManager.getCpuInUse(), resourceManager.getAllocatedMemory(),
+					resourceManager.getAllocatedBandwidth(), resourceManager.getAllocatedStorage(), getCurrentPowerConsumption());
+		}
 		
 		//log priv domain
 		privDomainAllocation.getVm().logState();
@@ -732,7 +760,7 @@ public final class Host implements SimulationEventListener {
 		for (VmAllocation vmAllocation : vmAllocations) {
 			if (vmAllocation.getVm() != null) {
 				vmAllocation.getVm().logState();
-			} else {
+			} else if (debug) {
 				simulation.getLogger().debug("Empty Allocation CPU[" + vmAllocation.getCpu() + "]");
 			}
 		}
@@ -768,7 +796,15 @@ public final class Host implements SimulationEventListener {
 	
 	public HostState getState() { return state; }
 	
-	public void setState(HostState state) { this.state = state; }
+	public void setState(HostState state) {
+		HostState oldState = this.state;
+		this.state = state;
+		
+		if (rack != null) {
+			rack.hostStateChanged(oldState, state);
+		}
+		simulation.hostStateChanged(this, oldState);
+	}
 	
 	public NetworkCard getDataNetworkCard() { return dataNetworkCard; }
 	
@@ -789,10 +825,13 @@ public final class Host implements SimulationEventListener {
 	public ResourceManager getResourceManager() {	return resourceManager;	 }
 	
 	public ResourceScheduler getResourceScheduler() { return resourceScheduler; } 
+	
+	public VmmApplication getVmmApplication() { return vmmApplication; }
 		
 	public void setResourceManager(ResourceManager resourceManager) {
 		this.resourceManager = resourceManager;
 		resourceManager.setHost(this);
+		powerState = null;
 	}
 	
 	public void setResourceScheduler(ResourceScheduler resourceScheduler) {
@@ -822,7 +861,11 @@ public final class Host implements SimulationEventListener {
 	public HostPowerModel getPowerModel() { 	return powerModel;	}
 	
 	public void setHostPowerModel(HostPowerModel powerModel) {
+		if (powerModel.getPowerConsumption(HostState.OFF, 0) != 0)
+			throw new IllegalArgumentException("Power model must give an OFF Host no power consumption");
+		
 		this.powerModel = powerModel;
+		powerState = null;
 	}
 	
 	public long getTimeActive() { return timeActive; }
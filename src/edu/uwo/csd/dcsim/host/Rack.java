@@ -32,6 +32,9 @@ public final class Rack implements SimulationEventListener, Comparable<Rack> {
 	public enum RackState {ON, SUSPENDED, OFF;}
 	private RackState state;
 	
+	private int activeHosts = 0;						// Number of hosts ON or transitioning between power states, updated by Host.setState.
+	private int suspendedHosts = 0;						// Number of hosts SUSPENDED, updated by Host.setState.
+	
 	private Rack(Builder builder) {
 		
 		this.simulation = builder.simulation;
@@ -62,6 +65,7 @@ public final class Rack implements SimulationEventListener, Comparable<Rack> {
 			mgmtNetworkSwitch.addPort(link);
 			
 			this.hosts.add(host);
+			hostStateChanged(null, host.getState());
 		}
 		
 		// Set default state.
@@ -140,22 +144,6 @@ public final class Rack implements SimulationEventListener, Comparable<Rack> {
 	public void updateState() {
 		RackState oldState = state;
 		
-		// Calculate number of active and suspended Hosts -- the rest are powered-off.
-		int activeHosts = 0;
-		int suspendedHosts = 0;
-		for (Host host : hosts) {
-			Host.HostState state = host.getState();
-			if (state == Host.HostState.ON || 
-				state == Host.HostState.POWERING_ON || 
-				state == Host.HostState.SUSPENDING || 
-				state == Host.HostState.POWERING_OFF)
-				
-				activeHosts++;
-			else if (state == Host.HostState.SUSPENDED)
-				suspendedHosts++;
-			// ELSE Host is OFF or FAILED
-		}
-		
 		// Determine Rack's current state.
 		if (activeHosts > 0)
 			state = RackState.ON;
@@ -165,8 +153,38 @@ public final class Rack implements SimulationEventListener, Comparable<Rack> {
 			state = RackState.OFF;
 		
 		// If there was a change in state, update parent Cluster's state.
-		if (state != oldState)
+		if (state != oldState) {
+			cluster.rackStateChanged(oldState, state);
 			cluster.updateState();
+		}
+	}
+	
+	/**
+	 * Update the count of active and suspended Hosts following a Host state transition. The Rack state itself is not
+	 * changed until updateState() is called.
+	 * @param oldState The previous state of the Host, or null if the Host is new to the Rack
+	 * @param newState
+	 */
+	void hostStateChanged(Host.HostState oldState, Host.HostState newState) {
+		if (oldState != null) {
+			if (isActive(oldState))
+				activeHosts--;
+			else if (oldState == Host.HostState.SUSPENDED)
+				suspendedHosts--;
+		}
+		
+		if (isActive(newState))
+			activeHosts++;
+		else if (newState == Host.HostState.SUSPENDED)
+			suspendedHosts++;
+		// ELSE Host is OFF or FAILED
+	}
+	
+	private static boolean isActive(Host.HostState state) {
+		return state == Host.HostState.ON || 
+			state == Host.HostState.POWERING_ON || 
+			state == Host.HostState.SUSPENDING || 
+			state == Host.HostState.POWERING_OFF;
 	}
 	
 	@Override
@@ -67,6 +67,18 @@ public class Resources {
 		return difference;
 	}
 	
+	/**
+	 * Set these resources to those given, as the copy constructor would
+	 * @param resources
+	 */
+	public void set(Resources resources) {
+		cores = resources.getCores();
+		cpu = cores * resources.getCoreCapacity();
+		memory = resources.getMemory();
+		bandwidth = resources.getBandwidth();
+		storage = resources.getStorage();
+	}
+	
 	public Resources copy() {
 		return new Resources(this);
 	}
@@ -77,14 +77,14 @@ public class MigrateVmEvent extends Event {
 	}
 	
 	public void preExecute() {
-		if (!complete) {
-			simulation.getTraceLogger().info("#ms," + source.getId() + "," + target.getId() + "," + vm.getId());
+		if (!complete && simulation.isTraceEnabled()) {
+			simulation.getTraceWriter().migrationStart(source.getId(), target.getId(), vm.getId());
 		}
 	}
 	
 	public void postExecute() {
-		if (complete) {
-			simulation.getTraceLogger().info("#mc," + source.getId() + "," + target.getId() + "," + vm.getId());
+		if (complete && simulation.isTraceEnabled()) {
+			simulation.getTraceWriter().migrationComplete(source.getId(), target.getId(), vm.getId());
 		}
 	}
 
@@ -5,6 +5,9 @@ import edu.uwo.csd.dcsim.host.*;
 /**
  * HostPowerModel determines the current power consumption level of a Host. All HostPowerModel implementations should be immutable.
  * 
+ * A Host that is OFF consumes no power: getPowerConsumption(HostState.OFF, cpu) must return 0. Metrics rely on this to
+ * skip OFF Hosts, and Host rejects a power model that does not follow it.
+ * 
  * @author Michael Tighe
  *
  */
@@ -2,6 +2,7 @@ package edu.uwo.csd.dcsim.host.resourcemanager;
 
 import java.util.Collection;
 
+import edu.uwo.csd.dcsim.core.Simulation;
 import edu.uwo.csd.dcsim.host.Host;
 import edu.uwo.csd.dcsim.vm.VmAllocation;
 import edu.uwo.csd.dcsim.vm.VmAllocationRequest;
@@ -11,6 +12,25 @@ public abstract class ResourceManager {
 
 	protected Host host; //the host that this ResourceManager is managing
 	
+	/*
+	 * Running totals over the privileged domain and all VM allocations on the Host, kept up to date by VmAllocation
+	 * and Vm as allocations are made and resources scheduled. If the 'verifyResourceTotals' property is set to true,
+	 * each total is checked against a full scan of the allocations every time it is read.
+	 */
+	private int allocatedCpu = 0;
+	private int allocatedMemory = 0;
+	private int allocatedBandwidth = 0;
+	private int allocatedStorage = 0;
+	private int cpuInUse = 0;
+	
+	private boolean verifyTotals = false;
+	
+	public ResourceManager() {
+		if (Simulation.hasProperty("verifyResourceTotals")) {
+			verifyTotals = Boolean.parseBoolean(Simulation.getProperty("verifyResourceTotals").trim());
+		}
+	}
+	
 	/**
 	 * Get the Host that this ResourceManager is managing CPU the resources of
 	 * @return Host
@@ -38,6 +58,12 @@ public abstract class ResourceManager {
 	 * @return
 	 */
 	public final int getCpuInUse() {
+		if (verifyTotals) verifyTotal("CPU in use", cpuInUse, scanCpuInUse());
+		
+		return cpuInUse;
+	}
+	
+	private int scanCpuInUse() {
 		int cpuInUse = 0;
 		
 		if (host.getPrivDomainAllocation() != null) {
@@ -69,6 +95,12 @@ public abstract class ResourceManager {
 	 * @return
 	 */
 	public final int getAllocatedCpu() {
+		if (verifyTotals) verifyTotal("allocated CPU", allocatedCpu, scanAllocatedCpu());
+		
+		return allocatedCpu;
+	}
+	
+	private int scanAllocatedCpu() {
 		int allocatedCpu = 0;
 		
 		if (host.getPrivDomainAllocation() != null) {	
@@ -101,6 +133,12 @@ public abstract class ResourceManager {
 	 * @return
 	 */
 	public final int getAllocatedMemory() {
+		if (verifyTotals) verifyTotal("allocated memory", allocatedMemory, scanAllocatedMemory());
+		
+		return allocatedMemory;
+	}
+	
+	private int scanAllocatedMemory() {
 		int memory = 0;
 		
 		if (host.getPrivDomainAllocation() != null) {
@@ -156,6 +194,12 @@ public abstract class ResourceManager {
 	 * @return
 	 */
 	public final int getAllocatedBandwidth() {
+		if (verifyTotals) verifyTotal("allocated bandwidth", allocatedBandwidth, scanAllocatedBandwidth());
+		
+		return allocatedBandwidth;
+	}
+	
+	private int scanAllocatedBandwidth() {
 		int bandwidth = 0;
 		
 		if (host.getPrivDomainAllocation() != null) {
@@ -190,6 +234,12 @@ public abstract class ResourceManager {
 	 * @return
 	 */
 	public final int getAllocatedStorage() {
+		if (verifyTotals) verifyTotal("allocated storage", allocatedStorage, scanAllocatedStorage());
+		
+		return allocatedStorage;
+	}
+	
+	private int scanAllocatedStorage() {
 		int storage = 0;
 		
 		if (host.getPrivDomainAllocation() != null)
@@ -208,6 +258,40 @@ public abstract class ResourceManager {
 	public final int getAvailableStorage() { return getTotalStorage() - getAllocatedStorage(); }
 	
 	
+	/*
+	 * Running totals
+	 */
+	
+	/**
+	 * Update the allocated resource totals following a change to the privileged domain allocation or a VM allocation
+	 * on the Host. Called by VmAllocation.
+	 * @param cpu Change in allocated CPU
+	 * @param memory Change in allocated memory
+	 * @param bandwidth Change in allocated bandwidth
+	 * @param storage Change in allocated storage
+	 */
+	public final void updateAllocated(int cpu, int memory, int bandwidth, int storage) {
+		allocatedCpu += cpu;
+		allocatedMemory += memory;
+		allocatedBandwidth += bandwidth;
+		allocatedStorage += storage;
+	}
+	
+	/**
+	 * Update the CPU in use total following a change to the resources scheduled to a VM on the Host, or to the VMs
+	 * held by its allocations. Called by Vm, VmAllocation and Host.
+	 * @param cpu Change in CPU in use
+	 */
+	public final void updateCpuInUse(int cpu) {
+		cpuInUse += cpu;
+	}
+	
+	private void verifyTotal(String name, int total, int scanned) {
+		if (total != scanned)
+			throw new IllegalStateException("Host #" + host.getId() + " running total of " + name + " (" + total + 
+					") does not match its allocations (" + scanned + ")");
+	}
+	
 	/*
 	 * Capability and Capacity checks
 	 */
@@ -0,0 +1,234 @@
+package edu.uwo.csd.dcsim.host.scheduler;
+
+import java.util.Arrays;
+
+import edu.uwo.csd.dcsim.host.Resources;
+import edu.uwo.csd.dcsim.host.resourcemanager.ResourceManager;
+import edu.uwo.csd.dcsim.vm.*;
+
+/**
+ * Schedules CPU among VMs by max-min fairness (water-filling), producing the same allocations as
+ * DefaultResourceScheduler without its repeated passes over every VM, and without creating any Resources objects.
+ *
+ * DefaultResourceScheduler gives each VM with unmet demand an equal share of the remaining CPU on each pass, and re-reads
+ * the CPU scheduled to each VM through a Resources copy, which rounds it down to a multiple of the number of cores. A VM
+ * therefore keeps only whole multiples of its cores from each share before the last. VM CPU demands are themselves whole
+ * multiples of the number of cores, so all VMs with the same number of cores and unmet demand hold the same CPU at the
+ * start of each pass. This scheduler groups the VMs by number of cores
+ * and sorts each group by CPU demand once. A pass then completes the smallest demands of each group that fit within the
+ * share, and advances the CPU held by the rest of the group at once, so that it costs time in the number of groups and
+ * VMs completed rather than in the number of VMs. Each pass but the last completes at least one VM, and the number of
+ * groups is bounded by the cores of a host, so scheduling a host takes O(n log n) time in its number of VMs.
+ *
+ * CPU left over from the passes, less than one unit per VM with unmet demand, is handed out one unit at a time in
+ * allocation order, as DefaultResourceScheduler does with its final pass.
+ *
+ * Working arrays are reused between calls, and resources are set in place on each VM.
+ *
+ */
+public class WaterFillingResourceScheduler extends ResourceScheduler {
+
+	private Vm[] vms = new Vm[0];
+	private int[] cores = new int[0];
+	private int[] cpuDemand = new int[0];
+	private int[] cpuScheduled = new int[0];
+	private int[] group = new int[0]; //index of the group of VMs with the same number of cores
+	private long[] sortedDemand = new long[0]; //CPU demand in the high 32 bits, index into vms in the low 32 bits, sorted within each group
+
+	//groups of VMs demanding CPU, by number of cores
+	private int[] groupCores = new int[0];
+	private int[] groupHead = new int[0]; //the first VM of the group in sortedDemand with unmet demand
+	private int[] groupEnd = new int[0];
+	private int[] groupBase = new int[0]; //the CPU kept by VMs of the group with unmet demand, at the start of a pass
+	private int[] groupLast = new int[0]; //the CPU scheduled to VMs of the group with unmet demand, after the last pass
+
+	@Override
+	public void scheduleResources() {
+
+		ResourceManager resourceManager = host.getResourceManager();
+		int cpuRemaining = resourceManager.getTotalCpu();
+		int memoryRemaining = resourceManager.getTotalMemory();
+		int bandwidthRemaining = resourceManager.getTotalBandwidth();
+		int storageRemaining = resourceManager.getTotalStorage();
+
+		//first, schedule privileged domain (VMM) its full demand
+		Vm privDomainVm = host.getPrivDomainAllocation().getVm();
+		Resources privResourceDemand = privDomainVm.getTaskInstance().getResourceDemand();
+		int privCpuDemand = getCpuDemand(privDomainVm, privResourceDemand);
+
+		if (cpuRemaining >= privCpuDemand) {
+			cpuRemaining -= privCpuDemand;
+		} else {
+			throw new RuntimeException("Host #" + host.getId() + " does not have enough CPU to execute the VMM (privileged domain)");
+		}
+		if (memoryRemaining >= privResourceDemand.getMemory()) {
+			memoryRemaining -= privResourceDemand.getMemory();
+		} else {
+			throw new RuntimeException("Host #" + host.getId() + " does not have enough memory to execute the VMM (privileged domain)");
+		}
+		if (bandwidthRemaining >= privResourceDemand.getBandwidth()) {
+			bandwidthRemaining -= privResourceDemand.getBandwidth();
+		} else {
+			throw new RuntimeException("Host #" + host.getId() + " does not have enough bandwidth to execute the VMM (privileged domain)");
+		}
+		if (storageRemaining >= privResourceDemand.getStorage()) {
+			storageRemaining -= privResourceDemand.getStorage();
+		} else {
+			throw new RuntimeException("Host #" + host.getId() + " does not have enough storage to execute the VMM (privileged domain)");
+		}
+
+		privDomainVm.scheduleResources(privResourceDemand.getCores(), privCpuDemand, privResourceDemand.getMemory(),
+				privResourceDemand.getBandwidth(), privResourceDemand.getStorage());
+
+		ensureCapacity(host.getVMAllocations().size());
+
+		//check that there is enough memory, bandwidth and storage for all resources other than CPU to be scheduled at demand, and record CPU demands
+		int nVms = 0;
+		for (VmAllocation vmAlloc : host.getVMAllocations()) {
+			Vm vm = vmAlloc.getVm();
+			if (vm == null) continue; //null if this is an allocation for a migrating in VM
+
+			Resources demand = vm.getTaskInstance().getResourceDemand();
+
+			//verify that enough memory, bandwidth and storage are available. For now, we simply kill the simulation if this is not the case, the the behaviour is presently undefined
+			if (demand.getMemory() <= memoryRemaining) {
+				memoryRemaining -= demand.getMemory();
+			} else {
+				throw new RuntimeException("Host #" + host.getId() + " does not have enough memory to execute VM #" + vm.getId());
+			}
+			if (demand.getBandwidth() <= bandwidthRemaining) {
+				bandwidthRemaining -= demand.getBandwidth();
+			} else {
+				throw new RuntimeException("Host #" + host.getId() + " does not have enough bandwidth to execute VM #" + vm.getId());
+			}
+			if (demand.getStorage() <= storageRemaining) {
+				storageRemaining -= demand.getStorage();
+			} else {
+				throw new RuntimeException("Host #" + host.getId() + " does not have enough storage to execute VM #" + vm.getId());
+			}
+
+			vms[nVms] = vm;
+			cores[nVms] = demand.getCores();
+			cpuDemand[nVms] = getCpuDemand(vm, demand);
+			++nVms;
+		}
+
+		scheduleCpu(nVms, cpuRemaining);
+
+		for (int j = 0; j < nVms; ++j) {
+			Resources demand = vms[j].getTaskInstance().getResourceDemand();
+			vms[j].scheduleResources(cores[j], cpuScheduled[j], demand.getMemory(), demand.getBandwidth(), demand.getStorage());
+
+			//release references to VMs
+			vms[j] = null;
+		}
+
+	}
+
+	/**
+	 * Get the CPU demand of a VM, as Vm.getResourceDemand() would return it: rounded down to a multiple of the number of
+	 * cores, and capped at the VM maximum CPU
+	 * @param vm
+	 * @param demand The resource demand of the VM task instance
+	 * @return
+	 */
+	private static int getCpuDemand(Vm vm, Resources demand) {
+		return Math.min(demand.getCores() * demand.getCoreCapacity(), vm.getMaxCpu());
+	}
+
+	/**
+	 * Schedule CPU to the VMs, setting cpuScheduled
+	 */
+	private void scheduleCpu(int nVms, int cpuRemaining) {
+
+		//group the VMs demanding CPU by number of cores, marking their CPU scheduled as not yet known
+		int nGroups = 0;
+		for (int j = 0; j < nVms; ++j) {
+			cpuScheduled[j] = 0;
+			if (cpuDemand[j] == 0) continue;
+
+			int g = 0;
+			while (g < nGroups && groupCores[g] != cores[j]) ++g;
+			if (g == nGroups) {
+				groupCores[g] = cores[j];
+				groupEnd[g] = 0;
+				++nGroups;
+			}
+			group[j] = g;
+			++groupEnd[g];
+			cpuScheduled[j] = -1;
+		}
+
+		int incompleteVms = 0;
+		for (int g = 0; g < nGroups; ++g) {
+			groupHead[g] = incompleteVms;
+			incompleteVms += groupEnd[g];
+			groupEnd[g] = groupHead[g];
+			groupBase[g] = 0;
+			groupLast[g] = 0;
+		}
+		for (int j = 0; j < nVms; ++j) {
+			if (cpuScheduled[j] < 0) sortedDemand[groupEnd[group[j]]++] = ((long)cpuDemand[j] << 32) | j;
+		}
+		for (int g = 0; g < nGroups; ++g) {
+			Arrays.sort(sortedDemand, groupHead[g], groupEnd[g]);
+		}
+
+		//each pass gives an equal share of the remaining CPU to every VM with unmet demand, while the share is at least 1
+		while (incompleteVms > 0 && cpuRemaining >= incompleteVms) {
+			int cpuShare = cpuRemaining / incompleteVms;
+
+			for (int g = 0; g < nGroups; ++g) {
+				int base = groupBase[g];
+
+				//VMs with remaining demand within the share complete, smallest first
+				while (groupHead[g] < groupEnd[g]) {
+					int j = (int)sortedDemand[groupHead[g]];
+					int remainingCpuDemand = cpuDemand[j] - base;
+					if (remainingCpuDemand > cpuShare) break;
+
+					cpuScheduled[j] = cpuDemand[j];
+					cpuRemaining -= remainingCpuDemand;
+					--incompleteVms;
+					++groupHead[g];
+				}
+
+				//the rest receive the share, and keep a whole multiple of their cores of it into the next pass
+				cpuRemaining -= cpuShare * (groupEnd[g] - groupHead[g]);
+				groupLast[g] = base + cpuShare;
+				groupBase[g] = base + groupCores[g] * (cpuShare / groupCores[g]);
+			}
+		}
+
+		//CPU left over goes one unit at a time to the VMs with unmet demand, in allocation order
+		for (int j = 0; j < nVms; ++j) {
+			if (cpuScheduled[j] >= 0) continue;
+
+			int g = group[j];
+			if (cpuRemaining > 0) {
+				cpuScheduled[j] = Math.min(groupBase[g] + 1, cpuDemand[j]);
+				--cpuRemaining;
+			} else {
+				cpuScheduled[j] = groupLast[g];
+			}
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if (vms.length < size) {
+			int capacity = Math.max(size, vms.length * 2);
+			vms = new Vm[capacity];
+			cores = new int[capacity];
+			cpuDemand = new int[capacity];
+			cpuScheduled = new int[capacity];
+			group = new int[capacity];
+			sortedDemand = new long[capacity];
+			groupCores = new int[capacity];
+			groupHead = new int[capacity];
+			groupEnd = new int[capacity];
+			groupBase = new int[capacity];
+			groupLast = new int[capacity];
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+package edu.uwo.csd.dcsim.logging;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An OutputStream that hands each write to a background thread, which writes it to the underlying stream. Writes are
+ * copied into a bounded, lock-free ring buffer shared by a single producer (the writing thread) and the background
+ * consumer, so that the simulation does not wait on disk I/O. Writes from more than one thread must be serialized by
+ * the caller, as log4j appenders do.
+ *
+ * The background thread is woken once a quarter of the buffer is pending, and otherwise checks for writes every 10ms.
+ * When the buffer is full, the OverflowPolicy either blocks the writer until space is available, or drops the write and
+ * counts it.
+ *
+ * flush() returns immediately, so that appenders flushing after each line do not wait for the disk. Use drain() to wait
+ * until all writes have reached the underlying stream. finish() drains the buffer and stops the background thread; any
+ * later writes are written synchronously.
+ *
+ */
+public class AsyncOutputStream extends OutputStream {
+
+	public enum OverflowPolicy {BLOCK, DROP;}
+
+	private static final long PARK_NANOS = 100000; //0.1ms wait while blocked on a full buffer or draining
+	private static final long IDLE_PARK_NANOS = 10000000; //10ms wait of the background thread for writes below the wake threshold
+
+	private final OutputStream out;
+	private final OverflowPolicy overflowPolicy;
+	private final byte[][] slots;
+	private final int mask;
+	private final int wakeThreshold; //number of pending writes at which the producer wakes the background thread
+
+	private final AtomicLong head = new AtomicLong(0); //next slot to be written out, advanced by the consumer
+	private final AtomicLong tail = new AtomicLong(0); //next slot to be filled, advanced by the producer
+	private final AtomicLong written = new AtomicLong(0); //slots written out and flushed to the underlying stream
+	private final AtomicLong dropped = new AtomicLong(0);
+
+	private final Thread consumer;
+	private volatile boolean consumerWaiting = false;
+	private volatile boolean running = true;
+	private volatile IOException error = null;
+	private boolean closed = false;
+
+	/**
+	 * @param out The stream to write to
+	 * @param capacity The number of writes the buffer can hold. Rounded up to a power of two.
+	 * @param overflowPolicy
+	 * @param name The name of the background thread
+	 */
+	public AsyncOutputStream(OutputStream out, int capacity, OverflowPolicy overflowPolicy, String name) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Asynchronous output buffer capacity must be at least 1");
+
+		this.out = new BufferedOutputStream(out, 65536);
+		this.overflowPolicy = overflowPolicy;
+
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		slots = new byte[size][];
+		mask = size - 1;
+		wakeThreshold = Math.max(1, size / 4);
+
+		consumer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				consume();
+			}
+
+		}, name);
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] {(byte)b}, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (closed)
+			throw new IOException("Asynchronous output stream has been closed");
+		checkError();
+		if (len == 0)
+			return;
+
+		if (!running) {
+			out.write(b, off, len);
+			return;
+		}
+
+		long t = tail.get();
+		while (t - head.get() >= slots.length) {
+			if (overflowPolicy == OverflowPolicy.DROP) {
+				dropped.incrementAndGet();
+				return;
+			}
+			wakeConsumer();
+			LockSupport.parkNanos(PARK_NANOS);
+			checkError();
+		}
+
+		byte[] copy = new byte[len];
+		System.arraycopy(b, off, copy, 0, len);
+		slots[(int)t & mask] = copy;
+		tail.set(t + 1); //publish the slot to the consumer, before checking if it is waiting
+
+		//wake the consumer in batches rather than on every write, as waking a thread is expensive relative to a write
+		if (consumerWaiting && (t + 1) - head.get() >= wakeThreshold)
+			wakeConsumer();
+	}
+
+	/**
+	 * Does not wait for buffered writes. See drain().
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkError();
+		if (!running)
+			out.flush();
+	}
+
+	/**
+	 * Wait until all writes made so far have been written and flushed to the underlying stream
+	 * @throws IOException
+	 */
+	public void drain() throws IOException {
+		checkError();
+		if (!running) {
+			out.flush();
+			return;
+		}
+
+		long target = tail.get();
+		while (written.get() < target) {
+			checkError();
+			wakeConsumer();
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		checkError();
+	}
+
+	/**
+	 * Drain the buffer and stop the background thread. Later writes are written synchronously.
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (!running)
+			return;
+
+		drain();
+		running = false;
+		wakeConsumer();
+		try {
+			consumer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		checkError();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+
+		finish();
+		closed = true;
+		out.close();
+	}
+
+	/**
+	 * Get the number of writes dropped because the buffer was full
+	 * @return
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private void wakeConsumer() {
+		LockSupport.unpark(consumer);
+	}
+
+	private void checkError() throws IOException {
+		if (error != null)
+			throw new IOException("Asynchronous write failed", error);
+	}
+
+	private void consume() {
+		try {
+			while (true) {
+				long h = head.get();
+				if (h < tail.get()) {
+					int slot = (int)h & mask;
+					byte[] data = slots[slot];
+					slots[slot] = null;
+					head.lazySet(h + 1); //release the slot to the producer
+					out.write(data);
+				} else {
+					//buffer is empty: flush what has been written, then wait for more
+					if (written.get() < h) {
+						out.flush();
+						written.set(h);
+					}
+					if (!running)
+						return;
+
+					consumerWaiting = true;
+					if (head.get() == tail.get() && running) {
+						LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+					}
+					consumerWaiting = false;
+				}
+			}
+		} catch (IOException e) {
+			error = e;
+			running = false;
+		}
+	}
+
+}
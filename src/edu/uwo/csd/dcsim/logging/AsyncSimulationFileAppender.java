@@ -0,0 +1,55 @@
+package edu.uwo.csd.dcsim.logging;
+
+import java.io.*;
+
+import org.apache.log4j.spi.ErrorCode;
+
+/**
+ * A SimulationFileAppender that writes to its file from a background thread. Lines are formatted and encoded on the
+ * logging thread, so that the simulation time is recorded correctly, and are then passed to an AsyncOutputStream.
+ *
+ */
+public class AsyncSimulationFileAppender extends SimulationFileAppender {
+
+	private int bufferCapacity = 8192;
+	private AsyncOutputStream.OverflowPolicy overflowPolicy = AsyncOutputStream.OverflowPolicy.BLOCK;
+	private AsyncOutputStream asyncOut = null;
+
+	public void setBufferCapacity(int bufferCapacity) {
+		this.bufferCapacity = bufferCapacity;
+	}
+
+	public void setOverflowPolicy(AsyncOutputStream.OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	@Override
+	protected OutputStreamWriter createWriter(OutputStream os) {
+		asyncOut = new AsyncOutputStream(os, bufferCapacity, overflowPolicy, "AsyncSimulationFileAppender-" + getSimName());
+		return super.createWriter(asyncOut);
+	}
+
+	/**
+	 * Wait until all lines logged so far have been written to the file, and stop the background thread. Lines logged
+	 * afterwards are written synchronously.
+	 */
+	public void finish() {
+		if (asyncOut == null)
+			return;
+
+		try {
+			asyncOut.finish();
+		} catch (IOException e) {
+			errorHandler.error("Error while finishing asynchronous log output", e, ErrorCode.FLUSH_FAILURE);
+		}
+	}
+
+	/**
+	 * Get the number of lines dropped because the buffer was full
+	 * @return
+	 */
+	public long getDropped() {
+		return (asyncOut != null) ? asyncOut.getDropped() : 0;
+	}
+
+}
@@ -0,0 +1,224 @@
+package edu.uwo.csd.dcsim.logging;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import edu.uwo.csd.dcsim.host.Host;
+
+/**
+ * Reads a trace written by BinaryTraceWriter, and converts it to the CSV format of the text trace. The block index is
+ * used to read only the blocks covering a requested range of simulation time.
+ *
+ * In the CSV output, lines are ordered by simulation time, and within a time step are grouped by record type. The text
+ * trace instead interleaves record types in the order they were logged.
+ *
+ * Usage: BinaryTraceReader traceFile [csvFile] [startTime endTime]
+ *
+ */
+public class BinaryTraceReader {
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long indexOffset;
+	private final long[] blockFirstTimes;
+	private final long[] blockLastTimes;
+	private final long[] blockOffsets;
+	private final TraceRecordColumns headerHosts;
+
+	public BinaryTraceReader(File traceFile) throws IOException {
+		file = new RandomAccessFile(traceFile, "r");
+		channel = file.getChannel();
+
+		ByteBuffer start = read(0, 8);
+		if (start.getInt() != BinaryTraceWriter.MAGIC)
+			throw new IOException(traceFile + " is not a binary trace");
+		int version = start.getInt();
+		if (version != BinaryTraceWriter.VERSION)
+			throw new IOException("Unsupported binary trace version " + version);
+
+		ByteBuffer trailer = read(file.length() - 12, 12);
+		indexOffset = trailer.getLong();
+		if (trailer.getInt() != BinaryTraceWriter.MAGIC)
+			throw new IOException(traceFile + " is incomplete. The simulation may not have completed.");
+
+		ByteBuffer index = read(indexOffset, (int)(file.length() - 12 - indexOffset));
+		int nBlocks = index.getInt();
+		blockFirstTimes = new long[nBlocks];
+		blockLastTimes = new long[nBlocks];
+		blockOffsets = new long[nBlocks];
+		for (int i = 0; i < nBlocks; ++i) {
+			blockFirstTimes[i] = index.getLong();
+			blockLastTimes[i] = index.getLong();
+			blockOffsets[i] = index.getLong();
+		}
+
+		long headerEnd = (nBlocks > 0) ? blockOffsets[0] : indexOffset;
+		headerHosts = TraceRecordColumns.read(BinaryTraceRecordType.HOST_DESCRIPTION, read(8, (int)(headerEnd - 8)));
+	}
+
+	/**
+	 * Get the host descriptions written in the header of the trace. Hosts described after the simulation started are
+	 * recorded in the blocks instead.
+	 * @return
+	 */
+	public TraceRecordColumns getHostDescriptions() {
+		return headerHosts;
+	}
+
+	public int getBlockCount() { return blockOffsets.length; }
+
+	public long getBlockFirstTime(int block) { return blockFirstTimes[block]; }
+
+	public long getBlockLastTime(int block) { return blockLastTimes[block]; }
+
+	/**
+	 * Find the first block containing records at or after the given time
+	 * @param time
+	 * @return The index of the block, or getBlockCount() if there are no such records
+	 */
+	public int findBlock(long time) {
+		int low = 0;
+		int high = blockLastTimes.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (blockLastTimes[mid] < time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Read the records in a block
+	 * @param block
+	 * @return The records of each type, indexed by the ordinal of the type
+	 * @throws IOException
+	 */
+	public TraceRecordColumns[] readBlock(int block) throws IOException {
+		long end = (block + 1 < blockOffsets.length) ? blockOffsets[block + 1] : indexOffset;
+		ByteBuffer data = read(blockOffsets[block], (int)(end - blockOffsets[block]));
+
+		data.getLong(); //first time
+		data.getLong(); //last time
+
+		BinaryTraceRecordType[] types = BinaryTraceRecordType.values();
+		TraceRecordColumns[] records = new TraceRecordColumns[types.length];
+		for (BinaryTraceRecordType type : types) {
+			records[type.ordinal()] = TraceRecordColumns.read(type, data);
+		}
+		return records;
+	}
+
+	/**
+	 * Write the records with a simulation time within [startTime, endTime] as CSV lines, in the format of the text trace
+	 * @param out
+	 * @param startTime
+	 * @param endTime
+	 * @throws IOException
+	 */
+	public void exportCsv(Writer out, long startTime, long endTime) throws IOException {
+		for (int row = 0; row < headerHosts.size(); ++row) {
+			if (headerHosts.getTime(row) >= startTime && headerHosts.getTime(row) <= endTime) {
+				writeLine(out, headerHosts, row);
+			}
+		}
+
+		for (int block = findBlock(startTime); block < blockOffsets.length && blockFirstTimes[block] <= endTime; ++block) {
+			TraceRecordColumns[] records = readBlock(block);
+			int[] next = new int[records.length];
+
+			//records of each type are in time order, so output each time step one type at a time
+			while (true) {
+				long time = Long.MAX_VALUE;
+				for (int i = 0; i < records.length; ++i) {
+					if (next[i] < records[i].size()) {
+						time = Math.min(time, records[i].getTime(next[i]));
+					}
+				}
+				if (time == Long.MAX_VALUE || time > endTime)
+					break;
+
+				for (int i = 0; i < records.length; ++i) {
+					while (next[i] < records[i].size() && records[i].getTime(next[i]) == time) {
+						if (time >= startTime) {
+							writeLine(out, records[i], next[i]);
+						}
+						++next[i];
+					}
+				}
+			}
+		}
+		out.flush();
+	}
+
+	private void writeLine(Writer out, TraceRecordColumns records, int row) throws IOException {
+		out.write(Long.toString(records.getTime(row)));
+		out.write(',');
+		out.write(format(records, row));
+		out.write('\n');
+	}
+
+	private String format(TraceRecordColumns r, int row) {
+		BinaryTraceRecordType type = r.getType();
+		switch (type) {
+		case HOST_DESCRIPTION:
+			return TextTraceWriter.formatHostDescription(r.getInt(0, row), r.getInt(1, row), r.getInt(2, row), r.getInt(3, row),
+					r.getInt(4, row), r.getDouble(0, row), r.getDouble(1, row));
+		case HOST:
+			return TextTraceWriter.formatHostState(r.getInt(0, row), Host.HostState.values()[r.getInt(1, row)], r.getInt(2, row),
+					r.getInt(3, row), r.getInt(4, row), r.getInt(5, row), r.getDouble(0, row));
+		case PRIV_DOMAIN:
+		case VM:
+			return TextTraceWriter.formatVmState(type.getTag(), r.getInt(0, row), r.getInt(1, row), r.getInt(2, row), r.getInt(3, row),
+					r.getInt(4, row), r.getInt(5, row), r.getInt(6, row), r.getInt(7, row), r.getInt(8, row), r.getInt(9, row));
+		default:
+			int[] ids = new int[type.getIntFields()];
+			for (int i = 0; i < ids.length; ++i) {
+				ids[i] = r.getInt(i, row);
+			}
+			return TextTraceWriter.formatIds(type.getTag(), ids);
+		}
+	}
+
+	private ByteBuffer read(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0)
+				throw new EOFException("Unexpected end of binary trace");
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	public void close() throws IOException {
+		file.close();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1 && args.length != 2 && args.length != 3 && args.length != 4) {
+			System.err.println("Usage: BinaryTraceReader traceFile [csvFile] [startTime endTime]");
+			System.exit(1);
+		}
+
+		String csvFile = (args.length == 2 || args.length == 4) ? args[1] : null;
+		long startTime = 0;
+		long endTime = Long.MAX_VALUE;
+		if (args.length >= 3) {
+			startTime = Long.parseLong(args[args.length - 2]);
+			endTime = Long.parseLong(args[args.length - 1]);
+		}
+
+		BinaryTraceReader reader = new BinaryTraceReader(new File(args[0]));
+		Writer out = new BufferedWriter((csvFile != null) ? new FileWriter(csvFile) : new OutputStreamWriter(System.out));
+		try {
+			reader.exportCsv(out, startTime, endTime);
+		} finally {
+			out.close();
+			reader.close();
+		}
+	}
+
+}
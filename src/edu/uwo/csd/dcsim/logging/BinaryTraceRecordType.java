@@ -0,0 +1,47 @@
+package edu.uwo.csd.dcsim.logging;
+
+/**
+ * The types of record in a binary trace. Each type has a fixed width: a fixed number of int and double fields. The
+ * simulation time of each record is stored separately, run-length encoded (see TraceRecordColumns). The ordinal of each
+ * type determines the order of its columns within a block, so new types must be added at the end.
+ *
+ */
+public enum BinaryTraceRecordType {
+	HOST_DESCRIPTION ("#hd", 5, 2),	//id, cpu, memory, bandwidth, storage | idle power, peak power
+	HOST ("#h", 6, 1),				//id, state ordinal, cpu in use, memory, bandwidth, storage | power
+	PRIV_DOMAIN ("#vp", 10, 0),		//id, host id, cpu scheduled, cpu demand, bw scheduled, bw demand, memory scheduled, memory allocated, storage scheduled, storage allocated
+	VM ("#v", 10, 0),				//as PRIV_DOMAIN
+	VM_START ("#vs", 2, 0),			//vm id, host id
+	VM_COMPLETE ("#vc", 2, 0),		//vm id, host id
+	MIGRATION_START ("#ms", 3, 0),	//source host id, target host id, vm id
+	MIGRATION_COMPLETE ("#mc", 3, 0);	//source host id, target host id, vm id
+
+	private final String tag;
+	private final int intFields;
+	private final int doubleFields;
+
+	private BinaryTraceRecordType(String tag, int intFields, int doubleFields) {
+		this.tag = tag;
+		this.intFields = intFields;
+		this.doubleFields = doubleFields;
+	}
+
+	/**
+	 * Get the tag identifying records of this type in the text trace
+	 * @return
+	 */
+	public String getTag() { return tag; }
+
+	public int getIntFields() { return intFields; }
+
+	public int getDoubleFields() { return doubleFields; }
+
+	/**
+	 * Get the size of the fields of a single record, in bytes
+	 * @return
+	 */
+	public int getRecordWidth() {
+		return (4 * intFields) + (8 * doubleFields);
+	}
+
+}
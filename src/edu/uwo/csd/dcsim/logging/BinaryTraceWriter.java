@@ -0,0 +1,275 @@
+package edu.uwo.csd.dcsim.logging;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import edu.uwo.csd.dcsim.core.Simulation;
+import edu.uwo.csd.dcsim.host.Host;
+
+/**
+ * Writes the simulation trace in a compact binary, columnar format. Records are buffered in columns by type
+ * (see BinaryTraceRecordType) and written out in blocks of at least blockSize records. A block always ends at the end of
+ * a time step, so each simulation time falls within a single block. The file is laid out as follows, with all values
+ * big-endian:
+ *
+ * MAGIC (int), VERSION (int)
+ * header: the HOST_DESCRIPTION records of all Hosts described before the first block
+ * blocks: first time (long), last time (long), then for each record type in ordinal order, its records in columns
+ * index: number of blocks (int), then the first time (long), last time (long) and file offset (long) of each block
+ * trailer: file offset of the index (long), MAGIC (int)
+ *
+ * Records of a type are stored as their count, their run-length encoded times and then each field column
+ * (see TraceRecordColumns). Use BinaryTraceReader to read the trace or convert it to CSV.
+ *
+ */
+public class BinaryTraceWriter implements TraceWriter {
+
+	public static final int MAGIC = 0x44435354; //"DCST"
+	public static final int VERSION = 1;
+
+	private final Simulation simulation;
+	private final int blockSize;
+	private final OutputStream out;
+	private long position = 0;
+	private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+	private final TraceRecordColumns headerHosts = new TraceRecordColumns(BinaryTraceRecordType.HOST_DESCRIPTION);
+	private boolean headerWritten = false;
+
+	private final TraceRecordColumns[] columns = new TraceRecordColumns[BinaryTraceRecordType.values().length];
+	private int blockRecords = 0;
+	private long blockFirstTime;
+	private long blockLastTime;
+
+	private final ArrayList<long[]> index = new ArrayList<long[]>(); //first time, last time and offset of each block
+	private boolean closed = false;
+
+	/**
+	 * @param simulation
+	 * @param out The stream to write the trace to, such as a FileOutputStream or an AsyncOutputStream. Closed by close().
+	 * @param blockSize The minimum number of records per block
+	 */
+	public BinaryTraceWriter(Simulation simulation, OutputStream out, int blockSize) {
+		if (blockSize < 1)
+			throw new IllegalArgumentException("Trace block size must be at least 1");
+
+		this.simulation = simulation;
+		this.blockSize = blockSize;
+
+		for (BinaryTraceRecordType type : BinaryTraceRecordType.values()) {
+			columns[type.ordinal()] = new TraceRecordColumns(type);
+		}
+
+		this.out = out;
+
+		ByteBuffer start = ByteBuffer.allocate(8);
+		start.putInt(MAGIC);
+		start.putInt(VERSION);
+		write(start);
+	}
+
+	/**
+	 * Start a new record of the given type, stamped with the current simulation time. If the current block is full
+	 * and the time has advanced since its last record, the block is written first.
+	 * @param type
+	 * @return
+	 */
+	private int add(BinaryTraceRecordType type) {
+		if (closed)
+			throw new IllegalStateException("Binary trace has been closed");
+
+		long time = simulation.getSimulationTime();
+
+		if (blockRecords >= blockSize && time != blockLastTime) {
+			writeBlock();
+		}
+		if (blockRecords == 0) {
+			blockFirstTime = time;
+		}
+		blockLastTime = time;
+		++blockRecords;
+
+		return columns[type.ordinal()].add(time);
+	}
+
+	@Override
+	public void hostDescription(int hostId, int cpu, int memory, int bandwidth, int storage, double idlePower, double peakPower) {
+		TraceRecordColumns records;
+		int row;
+		if (headerWritten) {
+			records = columns[BinaryTraceRecordType.HOST_DESCRIPTION.ordinal()];
+			row = add(BinaryTraceRecordType.HOST_DESCRIPTION);
+		} else {
+			records = headerHosts;
+			row = headerHosts.add(simulation.getSimulationTime());
+		}
+
+		records.setInt(0, row, hostId);
+		records.setInt(1, row, cpu);
+		records.setInt(2, row, memory);
+		records.setInt(3, row, bandwidth);
+		records.setInt(4, row, storage);
+		records.setDouble(0, row, idlePower);
+		records.setDouble(1, row, peakPower);
+	}
+
+	@Override
+	public void hostState(int hostId, Host.HostState state, int cpuInUse, int memory, int bandwidth, int storage, double power) {
+		int row = add(BinaryTraceRecordType.HOST);
+		TraceRecordColumns records = columns[BinaryTraceRecordType.HOST.ordinal()];
+
+		records.setInt(0, row, hostId);
+		records.setInt(1, row, state.ordinal());
+		records.setInt(2, row, cpuInUse);
+		records.setInt(3, row, memory);
+		records.setInt(4, row, bandwidth);
+		records.setInt(5, row, storage);
+		records.setDouble(0, row, power);
+	}
+
+	@Override
+	public void vmState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		addVm(BinaryTraceRecordType.VM, vmId, hostId, cpuScheduled, cpuDemand, bandwidthScheduled, bandwidthDemand,
+				memoryScheduled, memoryAllocated, storageScheduled, storageAllocated);
+	}
+
+	@Override
+	public void privDomainState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		addVm(BinaryTraceRecordType.PRIV_DOMAIN, vmId, hostId, cpuScheduled, cpuDemand, bandwidthScheduled, bandwidthDemand,
+				memoryScheduled, memoryAllocated, storageScheduled, storageAllocated);
+	}
+
+	private void addVm(BinaryTraceRecordType type, int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		int row = add(type);
+		TraceRecordColumns records = columns[type.ordinal()];
+
+		records.setInt(0, row, vmId);
+		records.setInt(1, row, hostId);
+		records.setInt(2, row, cpuScheduled);
+		records.setInt(3, row, cpuDemand);
+		records.setInt(4, row, bandwidthScheduled);
+		records.setInt(5, row, bandwidthDemand);
+		records.setInt(6, row, memoryScheduled);
+		records.setInt(7, row, memoryAllocated);
+		records.setInt(8, row, storageScheduled);
+		records.setInt(9, row, storageAllocated);
+	}
+
+	@Override
+	public void vmStart(int vmId, int hostId) {
+		addIds(BinaryTraceRecordType.VM_START, vmId, hostId);
+	}
+
+	@Override
+	public void vmComplete(int vmId, int hostId) {
+		addIds(BinaryTraceRecordType.VM_COMPLETE, vmId, hostId);
+	}
+
+	@Override
+	public void migrationStart(int sourceHostId, int targetHostId, int vmId) {
+		addIds(BinaryTraceRecordType.MIGRATION_START, sourceHostId, targetHostId, vmId);
+	}
+
+	@Override
+	public void migrationComplete(int sourceHostId, int targetHostId, int vmId) {
+		addIds(BinaryTraceRecordType.MIGRATION_COMPLETE, sourceHostId, targetHostId, vmId);
+	}
+
+	private void addIds(BinaryTraceRecordType type, int... ids) {
+		int row = add(type);
+		TraceRecordColumns records = columns[type.ordinal()];
+
+		for (int i = 0; i < ids.length; ++i) {
+			records.setInt(i, row, ids[i]);
+		}
+	}
+
+	private void writeHeader() {
+		ByteBuffer header = getBuffer(headerHosts.getEncodedSize());
+		headerHosts.write(header);
+		write(header);
+
+		headerHosts.clear();
+		headerWritten = true;
+	}
+
+	private void writeBlock() {
+		if (!headerWritten)
+			writeHeader();
+		if (blockRecords == 0)
+			return;
+
+		int size = 16;
+		for (TraceRecordColumns records : columns) {
+			size += records.getEncodedSize();
+		}
+
+		index.add(new long[] {blockFirstTime, blockLastTime, position});
+
+		ByteBuffer block = getBuffer(size);
+		block.putLong(blockFirstTime);
+		block.putLong(blockLastTime);
+		for (TraceRecordColumns records : columns) {
+			records.write(block);
+			records.clear();
+		}
+		write(block);
+
+		blockRecords = 0;
+	}
+
+	@Override
+	public void close() {
+		if (closed)
+			return;
+
+		writeBlock();
+
+		long indexOffset = position;
+		ByteBuffer indexBuffer = getBuffer(4 + (index.size() * 24) + 12);
+		indexBuffer.putInt(index.size());
+		for (long[] entry : index) {
+			indexBuffer.putLong(entry[0]);
+			indexBuffer.putLong(entry[1]);
+			indexBuffer.putLong(entry[2]);
+		}
+		indexBuffer.putLong(indexOffset);
+		indexBuffer.putInt(MAGIC);
+		write(indexBuffer);
+
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new RuntimeException("Could not close binary trace file", e);
+		}
+		closed = true;
+	}
+
+	/**
+	 * Get an empty buffer with at least the given capacity, reusing the previous buffer if possible
+	 * @param capacity
+	 * @return
+	 */
+	private ByteBuffer getBuffer(int capacity) {
+		if (buffer.capacity() < capacity) {
+			buffer = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	private void write(ByteBuffer data) {
+		data.flip();
+		try {
+			out.write(data.array(), 0, data.limit());
+			position += data.limit();
+		} catch (IOException e) {
+			throw new RuntimeException("Could not write binary trace file", e);
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package edu.uwo.csd.dcsim.logging;
+
+import org.apache.log4j.Logger;
+
+import edu.uwo.csd.dcsim.common.Utility;
+import edu.uwo.csd.dcsim.host.Host;
+
+/**
+ * Writes the simulation trace as CSV lines to a log4j Logger, which stamps each line with the simulation time. The
+ * format methods are shared with BinaryTraceReader, so that binary traces convert to the same lines.
+ *
+ */
+public class TextTraceWriter implements TraceWriter {
+
+	private final Logger traceLogger;
+
+	public TextTraceWriter(Logger traceLogger) {
+		this.traceLogger = traceLogger;
+	}
+
+	@Override
+	public void hostDescription(int hostId, int cpu, int memory, int bandwidth, int storage, double idlePower, double peakPower) {
+		traceLogger.info(formatHostDescription(hostId, cpu, memory, bandwidth, storage, idlePower, peakPower));
+	}
+
+	@Override
+	public void hostState(int hostId, Host.HostState state, int cpuInUse, int memory, int bandwidth, int storage, double power) {
+		traceLogger.info(formatHostState(hostId, state, cpuInUse, memory, bandwidth, storage, power));
+	}
+
+	@Override
+	public void vmState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		traceLogger.info(formatVmState("#v", vmId, hostId, cpuScheduled, cpuDemand, bandwidthScheduled, bandwidthDemand,
+				memoryScheduled, memoryAllocated, storageScheduled, storageAllocated));
+	}
+
+	@Override
+	public void privDomainState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		traceLogger.info(formatVmState("#vp", vmId, hostId, cpuScheduled, cpuDemand, bandwidthScheduled, bandwidthDemand,
+				memoryScheduled, memoryAllocated, storageScheduled, storageAllocated));
+	}
+
+	@Override
+	public void vmStart(int vmId, int hostId) {
+		traceLogger.info(formatIds("#vs", vmId, hostId));
+	}
+
+	@Override
+	public void vmComplete(int vmId, int hostId) {
+		traceLogger.info(formatIds("#vc", vmId, hostId));
+	}
+
+	@Override
+	public void migrationStart(int sourceHostId, int targetHostId, int vmId) {
+		traceLogger.info(formatIds("#ms", sourceHostId, targetHostId, vmId));
+	}
+
+	@Override
+	public void migrationComplete(int sourceHostId, int targetHostId, int vmId) {
+		traceLogger.info(formatIds("#mc", sourceHostId, targetHostId, vmId));
+	}
+
+	@Override
+	public void close() {
+		//log4j writes each line as it is logged
+	}
+
+	//FORMAT: 0,#hd,id,cpuCapacity,memCapacity,bwCapacity,storageCapacity,idlePower,peakPower
+	static String formatHostDescription(int hostId, int cpu, int memory, int bandwidth, int storage, double idlePower, double peakPower) {
+		return "#hd," + hostId + "," + cpu + "," +
+				memory + "," +
+				bandwidth + "," +
+				storage + "," +
+				idlePower + "," +
+				peakPower;
+	}
+
+	static String formatHostState(int hostId, Host.HostState state, int cpuInUse, int memory, int bandwidth, int storage, double power) {
+		return "#h," + hostId + "," + state + "," + cpuInUse + "," +
+				memory + "," +
+				bandwidth + "," +
+				storage + "," +
+				Utility.roundDouble(power, 2);
+	}
+
+	static String formatVmState(String tag, int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated) {
+		return tag + "," + vmId + "," + hostId + "," +
+				Utility.roundDouble(cpuScheduled, 2) + "," + Utility.roundDouble(cpuDemand, 2) + "," +
+				Utility.roundDouble(bandwidthScheduled, 2) + "," + Utility.roundDouble(bandwidthDemand, 2) + "," +
+				memoryScheduled + "," + memoryAllocated + "," +
+				storageScheduled + "," + storageAllocated;
+	}
+
+	static String formatIds(String tag, int... ids) {
+		StringBuilder line = new StringBuilder(tag);
+		for (int id : ids) {
+			line.append(',').append(id);
+		}
+		return line.toString();
+	}
+
+}
@@ -0,0 +1,154 @@
+package edu.uwo.csd.dcsim.logging;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Holds records of a single BinaryTraceRecordType in columns: one array of times, and one array for each field. Records
+ * must be added in time order. In a binary trace, the records are stored as their count, the time column run-length
+ * encoded as (time, number of records) pairs, and then each field column in turn.
+ *
+ */
+public class TraceRecordColumns {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final BinaryTraceRecordType type;
+	private long[] times;
+	private final int[][] ints;
+	private final double[][] doubles;
+	private int count = 0;
+	private int timeRuns = 0; //number of distinct times
+
+	public TraceRecordColumns(BinaryTraceRecordType type) {
+		this(type, INITIAL_CAPACITY);
+	}
+
+	private TraceRecordColumns(BinaryTraceRecordType type, int capacity) {
+		this.type = type;
+		times = new long[capacity];
+		ints = new int[type.getIntFields()][capacity];
+		doubles = new double[type.getDoubleFields()][capacity];
+	}
+
+	/**
+	 * Add a record with all fields set to zero
+	 * @param time
+	 * @return The row of the new record, to be used to set its fields
+	 */
+	public int add(long time) {
+		if (count == times.length) {
+			int capacity = times.length * 2;
+			times = Arrays.copyOf(times, capacity);
+			for (int i = 0; i < ints.length; ++i) {
+				ints[i] = Arrays.copyOf(ints[i], capacity);
+			}
+			for (int i = 0; i < doubles.length; ++i) {
+				doubles[i] = Arrays.copyOf(doubles[i], capacity);
+			}
+		}
+
+		if (count == 0 || times[count - 1] != time) {
+			++timeRuns;
+		}
+		times[count] = time;
+		for (int i = 0; i < ints.length; ++i) {
+			ints[i][count] = 0;
+		}
+		for (int i = 0; i < doubles.length; ++i) {
+			doubles[i][count] = 0;
+		}
+		return count++;
+	}
+
+	public void setInt(int field, int row, int value) { ints[field][row] = value; }
+
+	public void setDouble(int field, int row, double value) { doubles[field][row] = value; }
+
+	public BinaryTraceRecordType getType() { return type; }
+
+	public int size() { return count; }
+
+	public long getTime(int row) { return times[row]; }
+
+	public int getInt(int field, int row) { return ints[field][row]; }
+
+	public double getDouble(int field, int row) { return doubles[field][row]; }
+
+	public void clear() {
+		count = 0;
+		timeRuns = 0;
+	}
+
+	/**
+	 * Get the number of bytes needed to write the records
+	 * @return
+	 */
+	public int getEncodedSize() {
+		return 8 + (timeRuns * 12) + (count * type.getRecordWidth());
+	}
+
+	/**
+	 * Write the record count, the run-length encoded times and each field column
+	 * @param buffer
+	 */
+	public void write(ByteBuffer buffer) {
+		buffer.putInt(count);
+		buffer.putInt(timeRuns);
+		int runStart = 0;
+		for (int row = 1; row <= count; ++row) {
+			if (row == count || times[row] != times[runStart]) {
+				buffer.putLong(times[runStart]);
+				buffer.putInt(row - runStart);
+				runStart = row;
+			}
+		}
+		for (int[] column : ints) {
+			for (int row = 0; row < count; ++row) {
+				buffer.putInt(column[row]);
+			}
+		}
+		for (double[] column : doubles) {
+			for (int row = 0; row < count; ++row) {
+				buffer.putDouble(column[row]);
+			}
+		}
+	}
+
+	/**
+	 * Read records written by write(ByteBuffer)
+	 * @param type
+	 * @param buffer
+	 * @return
+	 */
+	public static TraceRecordColumns read(BinaryTraceRecordType type, ByteBuffer buffer) {
+		int count = buffer.getInt();
+		TraceRecordColumns columns = new TraceRecordColumns(type, Math.max(count, 1));
+
+		int timeRuns = buffer.getInt();
+		int row = 0;
+		for (int run = 0; run < timeRuns; ++run) {
+			long time = buffer.getLong();
+			int runLength = buffer.getInt();
+			Arrays.fill(columns.times, row, row + runLength, time);
+			row += runLength;
+		}
+		if (row != count)
+			throw new IllegalStateException("Binary trace time column does not match record count");
+		for (int[] column : columns.ints) {
+			for (int i = 0; i < count; ++i) {
+				column[i] = buffer.getInt();
+			}
+		}
+		for (double[] column : columns.doubles) {
+			for (int i = 0; i < count; ++i) {
+				column[i] = buffer.getDouble();
+			}
+		}
+		columns.count = count;
+		columns.timeRuns = timeRuns;
+
+		return columns;
+	}
+
+}
@@ -0,0 +1,61 @@
+package edu.uwo.csd.dcsim.logging;
+
+import edu.uwo.csd.dcsim.host.Host;
+
+/**
+ * Writes the simulation trace, which records the description of each Host, the state of each Host and VM on every
+ * time step, and VM placement and migration events. Records are stamped with the current simulation time.
+ *
+ * Callers should check Simulation.isTraceEnabled() before gathering the values for a record.
+ *
+ */
+public interface TraceWriter {
+
+	/**
+	 * Record the description of a Host (#hd)
+	 */
+	public void hostDescription(int hostId, int cpu, int memory, int bandwidth, int storage, double idlePower, double peakPower);
+
+	/**
+	 * Record the current state and resource use of a Host (#h)
+	 */
+	public void hostState(int hostId, Host.HostState state, int cpuInUse, int memory, int bandwidth, int storage, double power);
+
+	/**
+	 * Record the resources scheduled to, demanded by and allocated to a VM (#v)
+	 */
+	public void vmState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated);
+
+	/**
+	 * Record the resources scheduled to, demanded by and allocated to the privileged domain VM of a Host (#vp)
+	 */
+	public void privDomainState(int vmId, int hostId, int cpuScheduled, int cpuDemand, int bandwidthScheduled, int bandwidthDemand,
+			int memoryScheduled, int memoryAllocated, int storageScheduled, int storageAllocated);
+
+	/**
+	 * Record the start of a VM on a Host (#vs)
+	 */
+	public void vmStart(int vmId, int hostId);
+
+	/**
+	 * Record the shutdown of a VM on a Host (#vc)
+	 */
+	public void vmComplete(int vmId, int hostId);
+
+	/**
+	 * Record the start of a migration (#ms)
+	 */
+	public void migrationStart(int sourceHostId, int targetHostId, int vmId);
+
+	/**
+	 * Record the completion of a migration (#mc)
+	 */
+	public void migrationComplete(int sourceHostId, int targetHostId, int vmId);
+
+	/**
+	 * Write any buffered records and release the trace file
+	 */
+	public void close();
+
+}
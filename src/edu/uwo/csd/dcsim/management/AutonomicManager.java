@@ -19,6 +19,9 @@ public class AutonomicManager implements SimulationEventListener {
 	private Map<RepeatingPolicyExecutionEvent, Policy> policyExecutionEvents = new HashMap<RepeatingPolicyExecutionEvent, Policy>();
 	private Map<Policy, RepeatingPolicyExecutionEvent> policyToExectionEvent = new HashMap<Policy, RepeatingPolicyExecutionEvent>();
 	
+	//the installed policies that handle each event class, in order of installation. Cleared when policies are installed or uninstalled.
+	private Map<Class<? extends Event>, ArrayList<Policy>> eventRoutes = new HashMap<Class<? extends Event>, ArrayList<Policy>>();
+	
 	private Host container = null; //if this AutonomicManager is running within a Host, it is stored here
 	
 	public AutonomicManager(Simulation simulation, ManagerCapability... capabilities) {
@@ -68,6 +71,7 @@ public class AutonomicManager implements SimulationEventListener {
 			//ensure that this AutonomicManager has the correct capabilities for this policy
 			if (policy.checkCapabilities(this)) {
 				policies.add(policy);
+				eventRoutes.clear();
 				policy.onInstall();
 			} else {
 				//capability check failed, treat as a programming error and kill the simulation
@@ -85,7 +89,9 @@ public class AutonomicManager implements SimulationEventListener {
 	}
 	
 	public void uninstallPolicy(Policy policy) {
-		policies.remove(policy);
+		if (policies.remove(policy)) {
+			eventRoutes.clear();
+		}
 		
 		//remove policy from list of repeating policy events, if present
 		RepeatingPolicyExecutionEvent event = policyToExectionEvent.get(policy);
@@ -131,11 +137,31 @@ public class AutonomicManager implements SimulationEventListener {
 				policy.execute(e, this);
 			}
 		} else {
-			//send event to all policies
-			for (Policy policy : policies) {
+			//send event to the policies that handle it
+			for (Policy policy : getEventRoute(e.getClass())) {
 				policy.execute(e, this);
 			}
 		}
 			
 	}
+	
+	/**
+	 * Get the installed policies that handle an event class, in order of installation. The list is not modified if
+	 * policies are installed or uninstalled while it is in use.
+	 * @param eventClass
+	 * @return
+	 */
+	private ArrayList<Policy> getEventRoute(Class<? extends Event> eventClass) {
+		ArrayList<Policy> route = eventRoutes.get(eventClass);
+		if (route == null) {
+			route = new ArrayList<Policy>();
+			for (Policy policy : policies) {
+				if (policy.handles(eventClass)) {
+					route.add(policy);
+				}
+			}
+			eventRoutes.put(eventClass, route);
+		}
+		return route;
+	}
 }
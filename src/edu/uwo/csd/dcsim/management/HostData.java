@@ -12,7 +12,7 @@ public class HostData {
 	private Host host;
 	
 	private HostStatus currentStatus = null;
-	private HostStatus sandboxStatus = null; //this is a HostStatus variable that can be freely modified for use in policies
+	private HostStatusSandbox sandboxStatus = null; //this is a copy of the current status that can be freely modified for use in policies
 	private boolean statusValid = true;
 	private long invalidationTime = -1;
 	
@@ -52,31 +52,27 @@ public class HostData {
 	}
 
 	public HostStatus getCurrentStatus() {
-		//return a copy of the status to ensure that it is read-only
-		return currentStatus.copy();
+		//HostStatus is immutable, so can be returned without copying
+		return currentStatus;
 	}
 	
-	public void setSandboxStatus(HostStatus status) {
+	public void setSandboxStatus(HostStatusSandbox status) {
 		sandboxStatus = status;
 	}
 	
-	public HostStatus getSandboxStatus() {
+	public HostStatusSandbox getSandboxStatus() {
 		return sandboxStatus;
 	}
 	
 	public void resetSandboxStatusToCurrent() {
 		if (currentStatus != null) {
-			this.sandboxStatus = currentStatus.copy();
+			this.sandboxStatus = new HostStatusSandbox(currentStatus);
 		}
 	}
 	
 	public ArrayList<HostStatus> getHistory() {
-		//return a copy of the history to ensure that it is read-only
-		ArrayList<HostStatus> historyCopy = new ArrayList<HostStatus>();
-		for (HostStatus status : history) {
-			historyCopy.add(status.copy());
-		}
-		return historyCopy;
+		//return a copy of the history list to ensure that it is read-only. The statuses are immutable, so are not copied.
+		return new ArrayList<HostStatus>(history);
 	}
 	
 	public int getId() {
@@ -108,7 +104,19 @@ public class HostData {
 		return canHost(vm.getCores(), vm.getCoreCapacity(), vm.getResourcesInUse(), currentStatus, hostDescription);
 	}
 	
+	public static boolean canHost(VmStatus vm, HostStatusSandbox sandboxStatus, HostDescription hostDescription) {		
+		return canHost(vm.getCores(), vm.getCoreCapacity(), vm.getResourcesInUse(), sandboxStatus, hostDescription);
+	}
+	
 	public static boolean canHost(int reqCores, int reqCoreCapacity, Resources reqResources, HostStatus currentStatus, HostDescription hostDescription) {
+		return canHost(reqCores, reqCoreCapacity, reqResources, currentStatus.getResourcesInUse(), hostDescription);
+	}
+	
+	public static boolean canHost(int reqCores, int reqCoreCapacity, Resources reqResources, HostStatusSandbox sandboxStatus, HostDescription hostDescription) {
+		return canHost(reqCores, reqCoreCapacity, reqResources, sandboxStatus.getResourcesInUse(), hostDescription);
+	}
+	
+	private static boolean canHost(int reqCores, int reqCoreCapacity, Resources reqResources, Resources resourcesInUse, HostDescription hostDescription) {
 		//verify that this host can host the given vm
 		
 		//check capabilities (e.g. core count, core capacity)
@@ -118,7 +126,6 @@ public class HostData {
 			return false;
 		
 		//check available resource
-		Resources resourcesInUse = currentStatus.getResourcesInUse();
 		if (hostDescription.getResourceCapacity().getCpu() - resourcesInUse.getCpu() < reqResources.getCpu())
 			return false;
 		if (hostDescription.getResourceCapacity().getMemory() - resourcesInUse.getMemory() < reqResources.getMemory())
@@ -1,25 +1,37 @@
 package edu.uwo.csd.dcsim.management;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import edu.uwo.csd.dcsim.host.*;
 import edu.uwo.csd.dcsim.vm.*;
 
-public class HostStatus {
+/**
+ * An immutable snapshot of the state of a Host and its VMs. A HostStatus, and the VmStatus objects it holds, can be shared
+ * between the current status, the status history and policies without copying. Changes to the state of a host planned
+ * by a policy are made in a HostStatusSandbox.
+ *
+ */
+public final class HostStatus {
+	
+	private final long timeStamp;
+	private final int id;
+	private final int incomingMigrations;
+	private final int outgoingMigrations;
+	private final List<VmStatus> migratingInVms;
+	private final Host.HostState state;
+	private final List<Resources> startingVmAllocations;
+	
+	private final double powerConsumption;
+	
+	private final VmStatus privDomain;
+	private final List<VmStatus> vms;
+	
+	//totals over the VMs, starting VMs and incoming VMs, calculated once as the status cannot change
+	private final Resources resourcesInUse;
+	private final int cpuAllocated;
 	
-	private long timeStamp;
-	private int id;
-	private int incomingMigrations;
-	private int outgoingMigrations;
-	private ArrayList<VmStatus> migratingInVms = new ArrayList<VmStatus>();
-	private Host.HostState state;
-	private ArrayList<Resources> startingVmAllocations = new ArrayList<Resources>();
-	
-	private double powerConsumption;
-	
-	VmStatus privDomain;
-	ArrayList<VmStatus> vms = new ArrayList<VmStatus>();
-		
 	public HostStatus(Host host, long timeStamp) {
 		
 		this.timeStamp = timeStamp;
@@ -28,23 +40,28 @@ public class HostStatus {
 		incomingMigrations = host.getMigratingIn().size();
 		outgoingMigrations = host.getMigratingOut().size();
 		state = host.getState();
-
+		
 		powerConsumption = host.getCurrentPowerConsumption();
 		
 		privDomain = new VmStatus(host.getPrivDomainAllocation().getVm(), timeStamp);
 		
+		ArrayList<VmStatus> vms = new ArrayList<VmStatus>();
 		for (VmAllocation vmAlloc : host.getVMAllocations()) {
 			if (vmAlloc.getVm() != null) {
 				vms.add(new VmStatus(vmAlloc.getVm(), timeStamp));
 			}
 		}
+		this.vms = Collections.unmodifiableList(vms);
 		
 		//keep track of resources promised to starting VMs
+		ArrayList<Resources> startingVmAllocations = new ArrayList<Resources>();
 		for (VmAllocation vmAlloc : host.getStartingVms()) {
 			startingVmAllocations.add(new Resources(vmAlloc.getCpu(), vmAlloc.getMemory(), vmAlloc.getBandwidth(), vmAlloc.getStorage()));
 		}
+		this.startingVmAllocations = Collections.unmodifiableList(startingVmAllocations);
 		
 		//keep track of resources promised to incoming VMs
+		ArrayList<VmStatus> migratingInVms = new ArrayList<VmStatus>();
 		for (VmAllocation vmAlloc : host.getMigratingIn()) {
 			Resources resources = new Resources();
 			resources.setCpu(vmAlloc.getVMDescription().getCpu());
@@ -56,53 +73,10 @@ public class HostStatus {
 					vmAlloc.getVMDescription().getCoreCapacity(),
 					resources));
 		}
+		this.migratingInVms = Collections.unmodifiableList(migratingInVms);
 		
-	}
-	
-	public HostStatus(HostStatus host) {
-		timeStamp = host.timeStamp;
-		
-		id = host.id;
-		incomingMigrations = host.incomingMigrations;
-		outgoingMigrations = host.outgoingMigrations;
-		state = host.state;
-		
-		startingVmAllocations = new ArrayList<Resources>();
-		for (Resources r : host.startingVmAllocations) {
-			startingVmAllocations.add(r.copy());
-		}
-		
-		powerConsumption = host.powerConsumption;
-		
-		privDomain = host.privDomain.copy();
-		
-		for (VmStatus vm : host.vms) {
-			vms.add(vm.copy());
-		}
-		
-		for (VmStatus vm : host.migratingInVms) {
-			migratingInVms.add(vm.copy());
-		}
-	}
-	
-	public void instantiateVm(VmStatus vm) {
-		vms.add(vm);
-	}
-	
-	public void migrate(VmStatus vm, HostStatus target) {
-		++outgoingMigrations;
-		vms.remove(vm);
-
-		target.vms.add(vm);
-		++target.incomingMigrations;
-	}
-	
-	public void unmigrate(VmStatus vm, HostStatus target) {
-		--outgoingMigrations;
-		vms.add(vm);
-
-		target.vms.remove(vm);
-		--target.incomingMigrations;
+		resourcesInUse = calculateResourcesInUse();
+		cpuAllocated = calculateCpuAllocated();
 	}
 	
 	public long getTimeStamp() {
@@ -129,19 +103,39 @@ public class HostStatus {
 		return outgoingMigrations;
 	}
 	
-	public ArrayList<VmStatus> getVms() {
+	/**
+	 * Get the VMs running on the host
+	 * @return An unmodifiable list
+	 */
+	public List<VmStatus> getVms() {
 		return vms;
 	}
 	
+	/**
+	 * Get the resources promised to starting VMs
+	 * @return Copies of the resources
+	 */
 	public ArrayList<Resources> getStartingVmAllocations() {
-		return startingVmAllocations;
+		ArrayList<Resources> allocations = new ArrayList<Resources>();
+		for (Resources resources : startingVmAllocations) {
+			allocations.add(resources.copy());
+		}
+		return allocations;
 	}
 	
-	public ArrayList<VmStatus> getMigratingInVms() {
+	/**
+	 * Get placeholder VmStatus objects for the VMs migrating in to the host
+	 * @return An unmodifiable list
+	 */
+	public List<VmStatus> getMigratingInVms() {
 		return migratingInVms;
 	}
 	
 	public int getCpuAllocated() {
+		return cpuAllocated;
+	}
+	
+	private int calculateCpuAllocated() {
 		int cpu = 0;
 		
 		for (VmStatus vmStatus : vms) {
@@ -161,7 +155,15 @@ public class HostStatus {
 		return cpu;
 	}
 	
+	/**
+	 * Get the resources in use by the privileged domain and VMs, and promised to starting and incoming VMs
+	 * @return A copy of the resources
+	 */
 	public Resources getResourcesInUse() {
+		return resourcesInUse.copy();
+	}
+	
+	private Resources calculateResourcesInUse() {
 		Resources resourcesInUse = privDomain.getResourcesInUse();
 		
 		for (VmStatus vmStatus : vms) {
@@ -184,9 +186,5 @@ public class HostStatus {
 	public double getPowerConsumption() {
 		return powerConsumption;
 	}
-
-	public HostStatus copy() {
-		return new HostStatus(this);
-	}
 	
 }
@@ -0,0 +1,117 @@
+package edu.uwo.csd.dcsim.management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.uwo.csd.dcsim.host.*;
+
+/**
+ * A modifiable copy of a HostStatus, in which policies plan VM placements and migrations before carrying them out. As
+ * VmStatus objects are immutable, they are shared with the HostStatus rather than copied. Resources in use and CPU
+ * allocated are updated as VMs are added and removed.
+ *
+ */
+public class HostStatusSandbox {
+	
+	private final HostStatus status;
+	private int incomingMigrations;
+	private int outgoingMigrations;
+	private final ArrayList<VmStatus> vms;
+	private Resources resourcesInUse;
+	private int cpuAllocated;
+	
+	public HostStatusSandbox(HostStatus status) {
+		this.status = status;
+		
+		incomingMigrations = status.getIncomingMigrationCount();
+		outgoingMigrations = status.getOutgoingMigrationCount();
+		vms = new ArrayList<VmStatus>(status.getVms());
+		resourcesInUse = status.getResourcesInUse();
+		cpuAllocated = status.getCpuAllocated();
+	}
+	
+	public void instantiateVm(VmStatus vm) {
+		addVm(vm);
+	}
+	
+	public void migrate(VmStatus vm, HostStatusSandbox target) {
+		++outgoingMigrations;
+		removeVm(vm);
+		
+		target.addVm(vm);
+		++target.incomingMigrations;
+	}
+	
+	public void unmigrate(VmStatus vm, HostStatusSandbox target) {
+		--outgoingMigrations;
+		addVm(vm);
+		
+		target.removeVm(vm);
+		--target.incomingMigrations;
+	}
+	
+	private void addVm(VmStatus vm) {
+		vms.add(vm);
+		resourcesInUse = resourcesInUse.add(vm.getResourcesInUse());
+		cpuAllocated += vm.getCores() * vm.getCoreCapacity();
+	}
+	
+	private void removeVm(VmStatus vm) {
+		int index = vms.indexOf(vm);
+		if (index != -1) {
+			VmStatus removed = vms.remove(index);
+			resourcesInUse = resourcesInUse.subtract(removed.getResourcesInUse());
+			cpuAllocated -= removed.getCores() * removed.getCoreCapacity();
+		}
+	}
+	
+	/**
+	 * Get the HostStatus this sandbox was created from
+	 * @return
+	 */
+	public HostStatus getHostStatus() {
+		return status;
+	}
+	
+	public long getTimeStamp() {
+		return status.getTimeStamp();
+	}
+	
+	public int getId() {
+		return status.getId();
+	}
+	
+	public Host.HostState getState() {
+		return status.getState();
+	}
+	
+	public int getIncomingMigrationCount() {
+		return incomingMigrations;
+	}
+	
+	public int getOutgoingMigrationCount() {
+		return outgoingMigrations;
+	}
+	
+	/**
+	 * Get the VMs planned to be on the host
+	 * @return An unmodifiable list
+	 */
+	public List<VmStatus> getVms() {
+		return Collections.unmodifiableList(vms);
+	}
+	
+	public int getCpuAllocated() {
+		return cpuAllocated;
+	}
+	
+	/**
+	 * Get the resources in use by the privileged domain and the planned VMs, and promised to starting and incoming VMs
+	 * @return A copy of the resources
+	 */
+	public Resources getResourcesInUse() {
+		return resourcesInUse.copy();
+	}
+	
+}
@@ -1,7 +1,9 @@
 package edu.uwo.csd.dcsim.management;
 
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.uwo.csd.dcsim.core.*;
 import edu.uwo.csd.dcsim.management.capabilities.ManagerCapability;
@@ -9,7 +11,20 @@ import edu.uwo.csd.dcsim.management.events.RepeatingPolicyExecutionEvent;
 
 public abstract class Policy {
 
-	public final String EXECUTE_METHOD_NAME = "execute";
+	public static final String EXECUTE_METHOD_NAME = "execute";
+	
+	/*
+	 * The execute method handling each event class, for each Policy class, resolved on first use and adapted to
+	 * HANDLER_TYPE. NO_HANDLER marks event classes the Policy class has no execute method for.
+	 */
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Policy.class, Event.class);
+	private static final MethodHandle NO_HANDLER = MethodHandles.constant(Object.class, null);
+	private static final ClassValue<ConcurrentHashMap<Class<?>, MethodHandle>> handlers = new ClassValue<ConcurrentHashMap<Class<?>, MethodHandle>>() {
+		@Override
+		protected ConcurrentHashMap<Class<?>, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Class<?>, MethodHandle>();
+		}
+	};
 	
 	private boolean enabled = true;
 	private ArrayList<Class<? extends ManagerCapability>> requiredCapabilities = new ArrayList<Class<? extends ManagerCapability>>();
@@ -42,45 +57,87 @@ public abstract class Policy {
 		this.manager = manager;
 		this.simulation = e.getSimulation(); //available through event anyways, but this is a bit more clear
 		
-		/*
-		 * Build the list of arguments for the execute method to search for. If the event is a RepeatingPolicyExecutionEvent,
-		 * we want to run the execute() method with no arguments. Otherwise, we add a single argument: the Event.
-		 */
-		Class<?> argsType[] = null;
-		Object args[] = null;
-		if (!(e instanceof RepeatingPolicyExecutionEvent)) {
-			argsType = new Class<?>[1];
-			argsType[0] = e.getClass();
-			
-			args = new Object[1];
-			args[0] = e;
+		MethodHandle handler = getHandler(this.getClass(), e.getClass());
+		if (handler == NO_HANDLER) {
+			return false; //return false if no method present
 		}
 		
-	
-		Method m = null;
+		//invoke the method
 		try {
-			m = this.getClass().getMethod(EXECUTE_METHOD_NAME, argsType);
-		} catch (SecurityException e1) {
+			handler.invokeExact(this, (Event)e);
+		} catch (RuntimeException e1) {
+			throw e1;
+		} catch (Error e1) {
+			throw e1;
+		} catch (Throwable e1) {
 			throw new RuntimeException(e1);
-		} catch (NoSuchMethodException e1) {
-			return false; //return false if no method present
 		}
 		
-		//invoke the method
-		if (m != null) {
-			try {
-				m.invoke(this, args);
-			} catch (IllegalArgumentException e1) {
-				throw new RuntimeException(e1);
-			} catch (IllegalAccessException e1) {
-				throw new RuntimeException(e1);
-			} catch (InvocationTargetException e1) {
-				throw new RuntimeException(e1);
+		return true;
+		
+	}
+	
+	/**
+	 * Determine if this policy has an execute method for an event class, or one of its superclasses
+	 * @param eventClass
+	 * @return
+	 */
+	public final boolean handles(Class<? extends Event> eventClass) {
+		return getHandler(this.getClass(), eventClass) != NO_HANDLER;
+	}
+	
+	/**
+	 * Get the execute method of a Policy class that handles an event class, resolving it on first use
+	 * @param policyClass
+	 * @param eventClass
+	 * @return The method, or NO_HANDLER if there is none
+	 */
+	private static MethodHandle getHandler(Class<?> policyClass, Class<?> eventClass) {
+		ConcurrentHashMap<Class<?>, MethodHandle> policyHandlers = handlers.get(policyClass);
+		MethodHandle handler = policyHandlers.get(eventClass);
+		if (handler == null) {
+			handler = findHandler(policyClass, eventClass);
+			policyHandlers.put(eventClass, handler);
+		}
+		return handler;
+	}
+	
+	/**
+	 * Find the execute method of a Policy class that handles an event class. A RepeatingPolicyExecutionEvent runs the
+	 * execute() method with no arguments. Any other event runs the execute method taking the event class, or otherwise its
+	 * nearest superclass.
+	 * @param policyClass
+	 * @param eventClass
+	 * @return The method, adapted to HANDLER_TYPE, or NO_HANDLER if there is none
+	 */
+	private static MethodHandle findHandler(Class<?> policyClass, Class<?> eventClass) {
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		try {
+			if (RepeatingPolicyExecutionEvent.class.isAssignableFrom(eventClass)) {
+				Method m = getExecuteMethod(policyClass);
+				if (m == null)
+					return NO_HANDLER;
+				return MethodHandles.dropArguments(lookup.unreflect(m), 1, Event.class).asType(HANDLER_TYPE);
+			}
+			
+			for (Class<?> type = eventClass; type != null && Event.class.isAssignableFrom(type); type = type.getSuperclass()) {
+				Method m = getExecuteMethod(policyClass, type);
+				if (m != null)
+					return lookup.unreflect(m).asType(HANDLER_TYPE);
 			}
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
 		}
 		
-		return true;
-		
+		return NO_HANDLER;
+	}
+	
+	private static Method getExecuteMethod(Class<?> policyClass, Class<?>... argsType) {
+		try {
+			return policyClass.getMethod(EXECUTE_METHOD_NAME, argsType);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
 	}
 	
 	public final boolean isEnabled() {
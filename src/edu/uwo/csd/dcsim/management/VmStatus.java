@@ -3,15 +3,19 @@ package edu.uwo.csd.dcsim.management;
 import edu.uwo.csd.dcsim.host.Resources;
 import edu.uwo.csd.dcsim.vm.Vm;
 
-public class VmStatus {
+/**
+ * An immutable snapshot of the state of a VM, shared by the HostStatus and HostStatusSandbox objects holding it.
+ *
+ */
+public final class VmStatus {
 	
-	long timeStamp;
-	int id = 0;
-	int cores;
-	int coreCapacity;
-	int hostCoreCapacity;
-	Resources resourcesInUse;
-	Vm vm;
+	private final long timeStamp;
+	private final int id;
+	private final int cores;
+	private final int coreCapacity;
+	private final int hostCoreCapacity;
+	private final Resources resourcesInUse;
+	private final Vm vm;
 	
 	public VmStatus(Vm vm, long timeStamp){
 		this.timeStamp = timeStamp;
@@ -24,16 +28,6 @@ public class VmStatus {
 		resourcesInUse = vm.getResourcesScheduled().copy();
 	}
 	
-	public VmStatus(VmStatus vmStatus) {
-		timeStamp = vmStatus.timeStamp;
-		vm = vmStatus.getVm();
-		id = vmStatus.id;
-		cores = vmStatus.cores;
-		coreCapacity = vmStatus.coreCapacity;
-		hostCoreCapacity = vmStatus.hostCoreCapacity;
-		resourcesInUse = vmStatus.resourcesInUse.copy();
-	}
-	
 	/**
 	 * Creates a "dummy" VM status for a placeholder
 	 * @param cores
@@ -41,14 +35,21 @@ public class VmStatus {
 	 * @param resources
 	 */
 	public VmStatus(int cores, int coreCapacity, Resources resources) {
+		this.timeStamp = 0;
+		this.vm = null;
 		this.id = -1;
 		this.cores = cores;
 		this.coreCapacity = coreCapacity;
-		this.resourcesInUse = resources;
+		this.hostCoreCapacity = 0;
+		this.resourcesInUse = new Resources(resources.getCpu(), resources.getMemory(), resources.getBandwidth(), resources.getStorage());
 	}
 	
+	/**
+	 * Get the resources in use by the VM
+	 * @return A copy of the resources
+	 */
 	public Resources getResourcesInUse() {
-		return resourcesInUse;
+		return resourcesInUse.copy();
 	}
 	
 	public long getTimeStamp() {
@@ -71,10 +72,6 @@ public class VmStatus {
 		return hostCoreCapacity;
 	}
 	
-	public VmStatus copy() {
-		return new VmStatus(this);
-	}
-	
 	public Vm getVm() {
 		return vm;
 	}
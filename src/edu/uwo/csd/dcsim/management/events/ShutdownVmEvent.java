@@ -29,7 +29,7 @@ public class ShutdownVmEvent extends Event {
 	
 	@Override
 	public void postExecute() {
-		if (log) simulation.getTraceLogger().info("#vc," + vmId + "," + hostId);
+		if (log && simulation.isTraceEnabled()) simulation.getTraceWriter().vmComplete(vmId, hostId);
 	}
 	
 }
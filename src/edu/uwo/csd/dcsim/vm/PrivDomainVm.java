@@ -4,6 +4,7 @@ import edu.uwo.csd.dcsim.application.TaskInstance;
 import edu.uwo.csd.dcsim.common.Utility;
 import edu.uwo.csd.dcsim.core.Simulation;
 import edu.uwo.csd.dcsim.host.Host;
+import edu.uwo.csd.dcsim.host.Resources;
 
 /**
  * A special VM that runs the VmmApplication for a Host 
@@ -20,7 +21,7 @@ public class PrivDomainVm extends Vm {
 
 	@Override
 	public void logState() {
-		if (getVMAllocation().getHost().getState() == Host.HostState.ON) {
+		if (simulation.isDebugEnabled() && getVMAllocation().getHost().getState() == Host.HostState.ON) {
 			simulation.getLogger().debug("PRIV  CPU[" + Utility.roundDouble(resourcesScheduled.getCpu(), 2) + 
 					"/" + vmAllocation.getCpu() + 
 					"/" + Utility.roundDouble(taskInstance.getResourceDemand().getCpu(), 2) + "] " + 
@@ -34,11 +35,12 @@ public class PrivDomainVm extends Vm {
 		}
 		
 		//trace output
-		simulation.getTraceLogger().info("#vp," + getId() + "," + vmAllocation.getHost().getId() + "," + 
-				Utility.roundDouble(resourcesScheduled.getCpu(), 2) + "," + Utility.roundDouble(taskInstance.getResourceDemand().getCpu(), 2) + "," + 
-				Utility.roundDouble(resourcesScheduled.getBandwidth(), 2) + "," + Utility.roundDouble(taskInstance.getResourceDemand().getBandwidth(), 2) + "," + 
-				resourcesScheduled.getMemory() + "," + vmAllocation.getMemory() + "," +
-				resourcesScheduled.getStorage() + "," + vmAllocation.getStorage());
+		if (simulation.isTraceEnabled()) {
+			Resources demand = taskInstance.getResourceDemand();
+			simulation.getTraceWriter().privDomainState(getId(), vmAllocation.getHost().getId(),
+					resourcesScheduled.getCpu(), demand.getCpu(), resourcesScheduled.getBandwidth(), demand.getBandwidth(),
+					resourcesScheduled.getMemory(), vmAllocation.getMemory(), resourcesScheduled.getStorage(), vmAllocation.getStorage());
+		}
 	}
 	
 }
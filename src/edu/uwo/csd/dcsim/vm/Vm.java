@@ -58,8 +58,55 @@ public class Vm implements SimulationEventListener {
 			throw new RuntimeException("Attempted to schedule a VM more CPU than is possible (> maxCpu)");
 		}
 		
+		int cpuInUse = getCpuInUse();
+		
 		this.resourcesScheduled = resources;
 		taskInstance.setResourceScheduled(resources);
+		
+		//update the CPU in use on the host, if this VM is counted there (a migrating VM is counted on its source host)
+		if (vmAllocation != null && vmAllocation.getVm() == this) {
+			vmAllocation.getHost().getResourceManager().updateCpuInUse(getCpuInUse() - cpuInUse);
+		}
+	}
+	
+	/**
+	 * Schedule resources to the VM by setting its scheduled Resources in place, rather than replacing them, so that a
+	 * scheduler need not create a Resources object for each VM on each call. The Resources remain shared with the task instance.
+	 * @param cores
+	 * @param cpu
+	 * @param memory
+	 * @param bandwidth
+	 * @param storage
+	 */
+	public void scheduleResources(int cores, int cpu, int memory, int bandwidth, int storage) {
+		
+		//double check that we are not trying to schedule more than maxCpu
+		if (cpu > getMaxCpu()) {
+			throw new RuntimeException("Attempted to schedule a VM more CPU than is possible (> maxCpu)");
+		}
+		
+		int cpuInUse = getCpuInUse();
+		
+		resourcesScheduled.setCores(cores);
+		resourcesScheduled.setCpu(cpu);
+		resourcesScheduled.setMemory(memory);
+		resourcesScheduled.setBandwidth(bandwidth);
+		resourcesScheduled.setStorage(storage);
+		taskInstance.setResourceScheduled(resourcesScheduled);
+		
+		//update the CPU in use on the host, if this VM is counted there (a migrating VM is counted on its source host)
+		if (vmAllocation != null && vmAllocation.getVm() == this) {
+			vmAllocation.getHost().getResourceManager().updateCpuInUse(getCpuInUse() - cpuInUse);
+		}
+	}
+	
+	/**
+	 * Get the CPU scheduled to the VM, as returned by getResourcesScheduled().getCpu(), without making a copy
+	 * @return
+	 */
+	public int getCpuInUse() {
+		//copying Resources rounds CPU down to a multiple of the number of cores
+		return resourcesScheduled.getCores() * resourcesScheduled.getCoreCapacity();
 	}
 	
 	public int getMaxCpu() {
@@ -75,7 +122,7 @@ public class Vm implements SimulationEventListener {
 	}
 	
 	public void logState() {
-		if (getVMAllocation().getHost().getState() == Host.HostState.ON) {
+		if (simulation.isDebugEnabled() && getVMAllocation().getHost().getState() == Host.HostState.ON) {
 			simulation.getLogger().debug("VM #" + getId() + " CPU[" + Utility.roundDouble(resourcesScheduled.getCpu(), 2) + 
 					"/" + vmAllocation.getCpu() + 
 					"/" + Utility.roundDouble(getResourceDemand().getCpu(), 2) + "] " + 
@@ -90,11 +137,12 @@ public class Vm implements SimulationEventListener {
 		}
 		
 		//trace output
-		simulation.getTraceLogger().info("#v," + getId() + "," + vmAllocation.getHost().getId() + "," + 
-				Utility.roundDouble(resourcesScheduled.getCpu(), 2) + "," + Utility.roundDouble(getResourceDemand().getCpu(), 2) + "," + 
-				Utility.roundDouble(resourcesScheduled.getBandwidth(), 2) + "," + Utility.roundDouble(getResourceDemand().getBandwidth(), 2) + "," + 
-				resourcesScheduled.getMemory() + "," + vmAllocation.getMemory() + "," +
-				resourcesScheduled.getStorage() + "," + vmAllocation.getStorage());
+		if (simulation.isTraceEnabled()) {
+			Resources demand = getResourceDemand();
+			simulation.getTraceWriter().vmState(getId(), vmAllocation.getHost().getId(),
+					resourcesScheduled.getCpu(), demand.getCpu(), resourcesScheduled.getBandwidth(), demand.getBandwidth(),
+					resourcesScheduled.getMemory(), vmAllocation.getMemory(), resourcesScheduled.getStorage(), vmAllocation.getStorage());
+		}
 		
 	}
 	
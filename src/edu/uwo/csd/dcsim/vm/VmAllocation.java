@@ -35,13 +35,26 @@ public class VmAllocation {
 		}
 	}
 	
+	/**
+	 * Get the CPU in use by the VM in this allocation, equal to getResourcesInUse().getCpu()
+	 * @return
+	 */
+	public int getCpuInUse() {
+		if (vm != null) {
+			return vm.getCpuInUse();
+		}
+		return 0;
+	}
+	
 	public void attachVm(Vm vm) {
-		this.vm = vm;
+		setVm(vm);
 		vm.setVMAllocation(this);
 	}
 	
 	public void setVm(Vm vm) {
+		int cpuInUse = getCpuInUse();
 		this.vm = vm;
+		host.getResourceManager().updateCpuInUse(getCpuInUse() - cpuInUse);
 	}
 	
 	public Vm getVm() {
@@ -61,6 +74,7 @@ public class VmAllocation {
 	}
 	
 	public void setCpu(int cpu) {
+		host.getResourceManager().updateAllocated(cpu - this.cpu, 0, 0, 0);
 		this.cpu = cpu;
 	}
 	
@@ -69,6 +83,7 @@ public class VmAllocation {
 	}
 	
 	public void setMemory(int memory) {
+		host.getResourceManager().updateAllocated(0, memory - this.memory, 0, 0);
 		this.memory = memory;
 	}
 	
@@ -77,6 +92,7 @@ public class VmAllocation {
 	}
 	
 	public void setBandwidth(int bandwidth) {
+		host.getResourceManager().updateAllocated(0, 0, bandwidth - this.bandwidth, 0);
 		this.bandwidth = bandwidth;
 	}
 	
@@ -85,6 +101,7 @@ public class VmAllocation {
 	}
 	
 	public void setStorage(int storage) {
+		host.getResourceManager().updateAllocated(0, 0, 0, storage - this.storage);
 		this.storage = storage;
 	}
 